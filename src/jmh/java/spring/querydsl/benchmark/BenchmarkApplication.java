@@ -0,0 +1,59 @@
+package spring.querydsl.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import spring.querydsl.QuerydslApplication;
+import spring.querydsl.service.MemberImportService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 벤치마크용으로 in-memory H2 위에 애플리케이션을 띄우고 memberCount 만큼 member 를 적재한다.
+ * team 은 10 개, age 는 1~100 으로 고르게 분포한다.
+ */
+final class BenchmarkApplication {
+
+    static final int TEAM_COUNT = 10;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * args 는 --key=value 형식이며 같은 key 의 기본값을 덮어쓴다.
+     */
+    static ConfigurableApplicationContext start(int memberCount, String... args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("spring.profiles.active", "bench");
+        options.put("spring.datasource.url", "jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        options.put("spring.jpa.hibernate.ddl-auto", "create");
+        options.put("spring.jpa.properties.hibernate.session.events.log.LOG_QUERIES_SLOWER_THAN_MS", "0");
+        options.put("member.query.slow-threshold", "1h");
+        options.put("logging.level.root", "warn");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(options.entrySet().stream()
+                        .map(option -> "--" + option.getKey() + "=" + option.getValue())
+                        .toArray(String[]::new));
+
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < memberCount; i++) {
+            csv.append("member").append(i).append(',')
+                    .append(i % 100 + 1).append(',')
+                    .append("team").append(i % TEAM_COUNT).append('\n');
+        }
+        context.getBean(MemberImportService.class)
+                .importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        return context;
+    }
+}
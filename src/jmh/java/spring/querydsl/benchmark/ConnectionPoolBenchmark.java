@@ -0,0 +1,69 @@
+package spring.querydsl.benchmark;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 내장 H2 TCP 서버에 32 개 스레드로 searchPage 를 호출해 풀 크기별 처리량을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class ConnectionPoolBenchmark {
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"2", "4", "8", "16", "32"})
+    int poolSize;
+
+    Server server;
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberSearchCond cond;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = BenchmarkApplication.start(memberCount,
+                "--spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:pool" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--spring.datasource.hikari.connection-timeout=30000");
+        memberRepository = context.getBean(MemberRepository.class);
+
+        cond = new MemberSearchCond();
+        cond.setTeamName("team1");
+        cond.setAgeGoe(20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPage() {
+        return memberRepository.searchPage(cond, PageRequest.of(5, 20));
+    }
+}
@@ -0,0 +1,94 @@
+package spring.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+import spring.querydsl.repository.MemberRepository;
+import spring.querydsl.repository.TeamRepository;
+import spring.querydsl.service.MemberImportService;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 행마다 persist/flush 할 때와 MemberImportService 의 JDBC batch 적재를 비교한다.
+ * 호출마다 rows 건을 넣으므로 SingleShotTime 으로 측정하고 매번 member 를 비운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class MemberImportBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    EntityManager em;
+    MemberRepository memberRepository;
+    MemberImportService memberImportService;
+    TransactionTemplate transactionTemplate;
+    Long teamId;
+    byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(0);
+        em = context.getBean(EntityManager.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberImportService = context.getBean(MemberImportService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        teamId = context.getBean(TeamRepository.class).save(new Team("teamA")).getId();
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            builder.append("member").append(i).append(',').append(i % 100).append(",teamA\n");
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearMembers() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void perRowPersist() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = em.getReference(Team.class, teamId);
+            for (int i = 0; i < rows; i++) {
+                em.persist(new Member("member" + i, i % 100, team));
+                em.flush();
+            }
+            em.clear();
+        });
+    }
+
+    @Benchmark
+    public long batchImport() throws IOException {
+        return memberImportService.importCsv(new ByteArrayInputStream(csv));
+    }
+}
@@ -0,0 +1,59 @@
+package spring.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * searchPage 의 count 쿼리를 순차 실행할 때와 별도 스레드에서 동시에 실행할 때의 지연 시간을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberParallelCountBenchmark {
+
+    @Param({"100000"})
+    int memberCount;
+
+    @Param({"false", "true"})
+    boolean parallelCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberSearchCond cond;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(memberCount, "--member.search.parallel-count.enabled=" + parallelCount);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        cond = new MemberSearchCond();
+        cond.setAgeGoe(20);
+        cond.setAgeLoe(80);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPage() {
+        return memberRepository.searchPage(cond, PageRequest.of(10, 20));
+    }
+}
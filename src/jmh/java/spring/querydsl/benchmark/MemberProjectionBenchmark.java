@@ -0,0 +1,118 @@
+package spring.querydsl.benchmark;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.querydsl.dto.MemberDto;
+import spring.querydsl.dto.QMemberDto;
+import spring.querydsl.entity.Member;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static spring.querydsl.entity.QMember.*;
+import static spring.querydsl.entity.QTeam.*;
+
+/**
+ * Member.team 의 fetch join 과 지연 로딩, 그리고 DTO 프로젝션 방식별 비용을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberProjectionBenchmark {
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"1000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    JPAQueryFactory queryFactory;
+    TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(memberCount);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void fetchJoinTeam(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team).fetchJoin()
+                    .limit(rows)
+                    .fetch();
+            members.forEach(m -> blackhole.consume(m.getTeam().getName()));
+        });
+    }
+
+    @Benchmark
+    public void lazyLoadTeam(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .limit(rows)
+                    .fetch();
+            members.forEach(m -> blackhole.consume(m.getTeam().getName()));
+        });
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection() {
+        return queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .limit(rows)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> projectionsBean() {
+        return queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .limit(rows)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> projectionsFields() {
+        return queryFactory
+                .select(Projections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .limit(rows)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> projectionsConstructor() {
+        return queryFactory
+                .select(Projections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .limit(rows)
+                .fetch();
+    }
+}
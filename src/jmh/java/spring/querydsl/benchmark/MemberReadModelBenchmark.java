@@ -0,0 +1,88 @@
+package spring.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.repository.MemberReadModel;
+import spring.querydsl.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 조건을 Querydsl(DB) 과 메모리 읽기 모델로 비교한다.
+ * narrow 는 age 정렬 인덱스로 구간만 보는 경우, wide 는 전체 열 스캔이 되는 경우다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberReadModelBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000", "1000000"})
+    int memberCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberReadModel readModel;
+
+    MemberSearchCond narrow;
+    MemberSearchCond wide;
+    PageRequest page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(memberCount, "--member.search.read-model.enabled=true");
+        readModel = context.getBean(MemberReadModel.class);
+        // 적재가 ApplicationReadyEvent 이후라 다시 읽어 한 번에 채운다
+        readModel.load();
+        memberRepository = context.getBean(MemberRepository.class);
+
+        narrow = new MemberSearchCond();
+        narrow.setTeamName("team1");
+        narrow.setAgeGoe(30);
+        narrow.setAgeLoe(32);
+        wide = new MemberSearchCond();
+        wide.setTeamName("team1");
+        wide.setAgeGoe(10);
+        page = PageRequest.of(10, PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> querydslNarrow() {
+        return memberRepository.search(narrow);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> readModelNarrow() {
+        return readModel.search(narrow);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> querydslPage() {
+        return memberRepository.searchPage(wide, page);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> readModelPage() {
+        return readModel.searchPage(wide, page);
+    }
+}
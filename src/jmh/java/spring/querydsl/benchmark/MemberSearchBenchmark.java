@@ -0,0 +1,109 @@
+package spring.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberSlice;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.repository.MemberJpaRepository;
+import spring.querydsl.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 검색 조건으로 searchByBuilder / searchByWhere / search 를 비교하고,
+ * offset 페이징(searchPage)과 keyset 페이징(searchSlice)을 1 페이지와 10,000 페이지에서 비교한다.
+ * 10,000 페이지가 가득 차도록 member 는 DEEP_PAGE * PAGE_SIZE 건 적재한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int DEEP_PAGE = 10_000;
+
+    @Param({"200000"})
+    int memberCount;
+
+    ConfigurableApplicationContext context;
+    MemberJpaRepository memberJpaRepository;
+    MemberRepository memberRepository;
+
+    MemberSearchCond cond;
+    MemberSearchCond emptyCond;
+    PageRequest deepPage;
+    String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(memberCount);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        cond = new MemberSearchCond();
+        cond.setTeamName("team1");
+        cond.setAgeGoe(30);
+        cond.setAgeLoe(40);
+        emptyCond = new MemberSearchCond();
+
+        if (memberCount < DEEP_PAGE * PAGE_SIZE) {
+            throw new IllegalStateException("memberCount 는 " + DEEP_PAGE * PAGE_SIZE + " 이상이어야 합니다: " + memberCount);
+        }
+        deepPage = PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE);
+        deepCursor = memberRepository.searchSlice(emptyCond, null, (DEEP_PAGE - 1) * PAGE_SIZE, false).getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(cond);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByWhere() {
+        return memberJpaRepository.searchByWhere(cond);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberRepository.search(cond);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageFirst() {
+        return memberRepository.searchPage(emptyCond, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageDeep() {
+        return memberRepository.searchPage(emptyCond, deepPage);
+    }
+
+    @Benchmark
+    public MemberSlice searchSliceFirst() {
+        return memberRepository.searchSlice(emptyCond, null, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public MemberSlice searchSliceDeep() {
+        return memberRepository.searchSlice(emptyCond, deepCursor, PAGE_SIZE, false);
+    }
+}
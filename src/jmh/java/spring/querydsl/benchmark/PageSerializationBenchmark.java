@@ -0,0 +1,92 @@
+package spring.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import spring.querydsl.dto.CompactMemberPage;
+import spring.querydsl.dto.CompactMemberPageSerializer;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.dto.MemberTeamDtoSerializer;
+import spring.querydsl.dto.PageResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 1,000 건 페이지를 PageImpl 기본 직렬화, PageResponse + MemberTeamDtoSerializer,
+ * team 사전을 쓰는 열 단위 형식(CompactMemberPage)으로 직렬화해 비교한다.
+ * 응답 크기(원본/gzip)는 Setup 에서 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSerializationBenchmark {
+
+    @Param({"1000"})
+    int rows;
+
+    ObjectMapper defaultMapper;
+    ObjectMapper tunedMapper;
+    Page<MemberTeamDto> page;
+    PageResponse<MemberTeamDto> pageResponse;
+    CompactMemberPage compactPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        defaultMapper = new ObjectMapper();
+        tunedMapper = new ObjectMapper()
+                .registerModule(new SimpleModule()
+                        .addSerializer(new MemberTeamDtoSerializer())
+                        .addSerializer(new CompactMemberPageSerializer()));
+
+        List<MemberTeamDto> content = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            long teamId = i % 2 + 1;
+            content.add(new MemberTeamDto((long) i, "member" + i, i % 100, teamId, "team" + teamId));
+        }
+        page = new PageImpl<>(content, PageRequest.of(3, rows), rows * 10L);
+        pageResponse = PageResponse.of(page);
+        compactPage = new CompactMemberPage(page);
+
+        report("PageImpl", defaultMapper.writeValueAsBytes(page));
+        report("PageResponse", tunedMapper.writeValueAsBytes(pageResponse));
+        report("CompactMemberPage", tunedMapper.writeValueAsBytes(compactPage));
+    }
+
+    @Benchmark
+    public byte[] pageImpl() throws Exception {
+        return defaultMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] pageResponse() throws Exception {
+        return tunedMapper.writeValueAsBytes(pageResponse);
+    }
+
+    @Benchmark
+    public byte[] compactPage() throws Exception {
+        return tunedMapper.writeValueAsBytes(compactPage);
+    }
+
+    private void report(String name, byte[] json) throws Exception {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        }
+        System.out.println(name + ": " + json.length + " bytes, gzip " + gzipped.size() + " bytes");
+    }
+}
@@ -0,0 +1,96 @@
+package spring.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static spring.querydsl.entity.QMember.*;
+
+/**
+ * 읽기 전용 트랜잭션(FlushMode.MANUAL, 스냅샷 없음)과 일반 트랜잭션의 조회 비용을 비교한다.
+ * build.gradle 의 gc 프로파일러가 요청당 할당량(gc.alloc.rate.norm)을 함께 기록한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReadOnlyQueryBenchmark {
+
+    @Param({"10000"})
+    int memberCount;
+
+    @Param({"1000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    JPAQueryFactory queryFactory;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnly;
+    TransactionTemplate readWrite;
+    MemberSearchCond cond;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(memberCount);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        cond = new MemberSearchCond();
+        cond.setAgeGoe(10);
+        cond.setAgeLoe(20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> entitiesReadWrite() {
+        return readWrite.execute(status -> fetchMembers());
+    }
+
+    @Benchmark
+    public List<Member> entitiesReadOnly() {
+        return readOnly.execute(status -> fetchMembers());
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> projectionReadWrite() {
+        return readWrite.execute(status -> memberRepository.search(cond));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> projectionReadOnly() {
+        return memberRepository.search(cond);
+    }
+
+    private List<Member> fetchMembers() {
+        return queryFactory
+                .selectFrom(member)
+                .limit(rows)
+                .fetch();
+    }
+}
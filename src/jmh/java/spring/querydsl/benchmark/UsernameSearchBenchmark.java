@@ -0,0 +1,78 @@
+package spring.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.repository.MemberRepository;
+import spring.querydsl.repository.UsernameTrigramIndex;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * username 검색을 100 만 건에서 비교한다: 완전 일치, prefix(B-tree 범위 검색),
+ * contains 의 like 스캔과 3-gram 색인으로 후보를 좁힌 경우.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsernameSearchBenchmark {
+
+    @Param({"1000000"})
+    int memberCount;
+
+    @Param({"false", "true"})
+    boolean usernameIndex;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    MemberSearchCond exact;
+    MemberSearchCond prefix;
+    MemberSearchCond contains;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start(memberCount, "--member.search.username-index.enabled=" + usernameIndex);
+        // 적재가 ApplicationReadyEvent 이후라 색인을 다시 채운다
+        context.getBean(UsernameTrigramIndex.class).load();
+        memberRepository = context.getBean(MemberRepository.class);
+
+        exact = new MemberSearchCond();
+        exact.setUsername("member123456");
+        prefix = new MemberSearchCond();
+        prefix.setUsernamePrefix("member12345");
+        contains = new MemberSearchCond();
+        contains.setUsernameContains("123456");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> exact() {
+        return memberRepository.search(exact);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> prefix() {
+        return memberRepository.search(prefix);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> contains() {
+        return memberRepository.search(contains);
+    }
+}
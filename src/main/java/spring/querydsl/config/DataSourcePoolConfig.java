@@ -0,0 +1,47 @@
+package spring.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Set;
+
+@Configuration
+public class DataSourcePoolConfig {
+
+    static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    /**
+     * spring.datasource.hikari 로 설정되는 풀. 라우팅을 켜지 않으면 자동 설정의 dataSource,
+     * 켜면 RoutingDataSourceConfig 의 primaryDataSource 이다.
+     */
+    static final Set<String> PRIMARY_POOL_BEANS = Set.of("dataSource", "primaryDataSource");
+
+    /**
+     * primary 풀의 크기를 따로 지정하지 않았다면 (코어 수 * 2) + 1 로 맞춘다.
+     * replica 풀은 member.datasource.replica.hikari 설정을 그대로 따른다.
+     * 풀은 첫 커넥션 요청 때 시작되므로 초기화 직후에는 크기를 바꿀 수 있다.
+     */
+    @Bean
+    static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource && PRIMARY_POOL_BEANS.contains(beanName)
+                        && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+                    int poolSize = defaultPoolSize();
+                    HikariDataSource dataSource = (HikariDataSource) bean;
+                    dataSource.setMaximumPoolSize(poolSize);
+                    dataSource.setMinimumIdle(poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int defaultPoolSize() {
+        return Runtime.getRuntime().availableProcessors() * 2 + 1;
+    }
+}
@@ -0,0 +1,20 @@
+package spring.querydsl.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 전용 트랜잭션은 replica 로, 그 외(쓰기 트랜잭션, 트랜잭션 밖)는 primary 로 보낸다.
+ * 트랜잭션 시작 시점에는 아직 readOnly 여부가 바인딩되지 않으므로 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Type {
+        PRIMARY, REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Type.REPLICA : Type.PRIMARY;
+    }
+}
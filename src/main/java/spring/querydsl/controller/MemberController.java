@@ -1,32 +1,117 @@
 package spring.querydsl.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import spring.querydsl.dto.AgeBucketDto;
+import spring.querydsl.dto.CompactMemberPage;
 import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberSlice;
 import spring.querydsl.dto.MemberTeamDto;
-import spring.querydsl.repository.MemberJpaRepository;
+import spring.querydsl.dto.PageResponse;
+import spring.querydsl.dto.TeamStatisticsDto;
 import spring.querydsl.repository.MemberRepository;
+import spring.querydsl.repository.MemberStatisticsRepository;
+import spring.querydsl.service.MemberExportService;
+import spring.querydsl.service.MemberImportService;
+import spring.querydsl.service.MemberSearchService;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
-    private final MemberJpaRepository memberJpaRepository;
+    private static final int MAX_SLICE_SIZE = 1000;
+
     private final MemberRepository memberRepository;
+    private final MemberStatisticsRepository memberStatisticsRepository;
+    private final MemberExportService memberExportService;
+    private final MemberImportService memberImportService;
+    private final MemberSearchService memberSearchService;
 
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(@ModelAttribute MemberSearchCond cond) {
-        return memberJpaRepository.searchByWhere(cond);
+        return memberSearchService.search(cond);
+    }
+
+    @GetMapping("/v1/members/export")
+    public ResponseEntity<StreamingResponseBody> exportMemberV1(@ModelAttribute MemberSearchCond cond,
+                                                                @RequestParam(defaultValue = "ndjson") String format) {
+        if ("csv".equals(format)) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv"))
+                    .body(out -> memberExportService.exportCsv(cond, out));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> memberExportService.exportNdjson(cond, out));
+    }
+
+    @GetMapping("/v1/members/stats/teams")
+    public List<TeamStatisticsDto> teamStatisticsV1(@ModelAttribute MemberSearchCond cond) {
+        return memberStatisticsRepository.teamStatistics(cond);
+    }
+
+    @GetMapping("/v1/members/stats/ages")
+    public List<AgeBucketDto> ageHistogramV1(@ModelAttribute MemberSearchCond cond,
+                                             @RequestParam(defaultValue = "10") int bucketSize,
+                                             @RequestParam(defaultValue = "100") int maxAge) {
+        return memberStatisticsRepository.ageHistogram(cond, bucketSize, maxAge);
     }
 
+    @PostMapping(value = "/v1/members/import", consumes = "text/csv")
+    public long importMemberV1(InputStream body) throws IOException {
+        return memberImportService.importCsv(body);
+    }
+
+    /**
+     * Accept 에 application/vnd.member.compact+json 을 명시하면 team 사전을 쓰는 열 단위 형식으로 응답한다.
+     */
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(@ModelAttribute MemberSearchCond cond, @PageableDefault Pageable pageable) {
-        return memberRepository.searchPage(cond, pageable);
+    public ResponseEntity<?> searchMemberV2(@ModelAttribute MemberSearchCond cond, @PageableDefault Pageable pageable,
+                                           @RequestHeader HttpHeaders headers) {
+        Page<MemberTeamDto> page = memberSearchService.searchPage(cond, pageable);
+        if (CompactMemberPage.isAcceptable(headers.getAccept())) {
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .contentType(CompactMemberPage.MEDIA_TYPE)
+                    .body(new CompactMemberPage(page));
+        }
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(PageResponse.of(page));
+    }
+
+    @GetMapping("/v3/members")
+    public MemberSlice searchMemberV3(@ModelAttribute MemberSearchCond cond,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "20") int size,
+                                     @RequestParam(defaultValue = "id") String sort) {
+        return memberRepository.searchSlice(cond, cursor, Math.max(1, Math.min(size, MAX_SLICE_SIZE)), "age".equals(sort));
+    }
+
+    /**
+     * 허용되지 않은 정렬 속성, 잘못된 cursor, 형식이 틀린 CSV 처럼 요청 값이 원인인 오류는 400 으로 돌려준다.
+     * 저장소에서 던진 예외는 InvalidDataAccessApiUsageException 으로 감싸져 오지만 원인으로 찾아진다.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public void badRequest(IllegalArgumentException e, HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
     }
 }
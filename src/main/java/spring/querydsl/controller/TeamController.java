@@ -0,0 +1,33 @@
+package spring.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import spring.querydsl.dto.PageResponse;
+import spring.querydsl.dto.TeamWithMembersDto;
+import spring.querydsl.repository.TeamRepository;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private static final int MAX_MEMBERS_PER_TEAM = 1000;
+
+    private final TeamRepository teamRepository;
+
+    /**
+     * maxMembers 를 주면 team 마다 그 수만큼만 담고, 전체 수는 memberCount 로 알려준다.
+     */
+    @GetMapping("/v1/teams")
+    public PageResponse<TeamWithMembersDto> searchTeamV1(@PageableDefault Pageable pageable,
+                                                         @RequestParam(required = false) Integer maxMembers) {
+        if (maxMembers == null) {
+            return PageResponse.of(teamRepository.searchTeamsWithMembers(pageable));
+        }
+        return PageResponse.of(teamRepository.searchTeamsWithMembers(pageable,
+                Math.max(0, Math.min(maxMembers, MAX_MEMBERS_PER_TEAM))));
+    }
+}
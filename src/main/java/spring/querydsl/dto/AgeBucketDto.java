@@ -0,0 +1,19 @@
+package spring.querydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class AgeBucketDto {
+
+    private int fromAge;
+
+    private Integer toAge;
+
+    private long count;
+
+    public AgeBucketDto(int fromAge, Integer toAge, long count) {
+        this.fromAge = fromAge;
+        this.toAge = toAge;
+        this.count = count;
+    }
+}
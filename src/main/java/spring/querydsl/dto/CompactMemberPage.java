@@ -0,0 +1,48 @@
+package spring.querydsl.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accept 가 application/vnd.member.compact+json 일 때 /v2/members 가 돌려주는 열 단위 응답.
+ * team 이름은 teams 사전에 한 번만 나가고 각 행은 teamId 로만 참조한다.
+ * <pre>
+ * {"content":{"memberId":[1,2],"username":["member1","member2"],"age":[10,20],"teamId":[1,null]},
+ *  "teams":{"1":"teamA"},"number":0,"size":20,"totalElements":2,"totalPages":1}
+ * </pre>
+ * 직렬화는 CompactMemberPageSerializer 가 중간 목록 없이 JsonGenerator 로 바로 쓴다.
+ */
+@Getter
+public class CompactMemberPage {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.member.compact+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private final Page<MemberTeamDto> page;
+
+    public CompactMemberPage(Page<MemberTeamDto> page) {
+        this.page = page;
+    }
+
+    /**
+     * Accept 에 compact 형식이 명시되어 있고 application/json 보다 우선할 때만 true.
+     * 와일드카드(*&#47;*)만 보낸 클라이언트는 기존 JSON 으로 응답한다.
+     */
+    public static boolean isAcceptable(List<MediaType> accept) {
+        List<MediaType> sorted = new ArrayList<>(accept);
+        MediaType.sortBySpecificityAndQuality(sorted);
+        for (MediaType type : sorted) {
+            if (MEDIA_TYPE.equalsTypeAndSubtype(type)) {
+                return true;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,104 @@
+package spring.querydsl.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 페이지 content 를 열마다 한 번씩 훑으며 배열로 바로 쓰고, 처음 나온 team 만 사전에 쓴다.
+ */
+@JsonComponent
+public class CompactMemberPageSerializer extends StdSerializer<CompactMemberPage> {
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString TEAM_ID = new SerializedString("teamId");
+    private static final SerializableString TEAMS = new SerializedString("teams");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+    public CompactMemberPageSerializer() {
+        super(CompactMemberPage.class);
+    }
+
+    @Override
+    public void serialize(CompactMemberPage value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Page<MemberTeamDto> page = value.getPage();
+        List<MemberTeamDto> rows = page.getContent();
+
+        gen.writeStartObject(value);
+        gen.writeFieldName(CONTENT);
+        gen.writeStartObject();
+
+        gen.writeFieldName(MEMBER_ID);
+        gen.writeStartArray();
+        for (MemberTeamDto row : rows) {
+            writeNullable(gen, row.getMemberId());
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName(USERNAME);
+        gen.writeStartArray();
+        for (MemberTeamDto row : rows) {
+            gen.writeString(row.getUsername());
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName(AGE);
+        gen.writeStartArray();
+        for (MemberTeamDto row : rows) {
+            gen.writeNumber(row.getAge());
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName(TEAM_ID);
+        gen.writeStartArray();
+        for (MemberTeamDto row : rows) {
+            writeNullable(gen, row.getTeamId());
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+
+        gen.writeFieldName(TEAMS);
+        gen.writeStartObject();
+        Set<Long> written = new HashSet<>();
+        for (MemberTeamDto row : rows) {
+            if (row.getTeamId() != null && written.add(row.getTeamId())) {
+                gen.writeFieldName(String.valueOf(row.getTeamId()));
+                gen.writeString(row.getTeamName());
+            }
+        }
+        gen.writeEndObject();
+
+        gen.writeFieldName(NUMBER);
+        gen.writeNumber(page.getNumber());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(page.getSize());
+        gen.writeFieldName(TOTAL_ELEMENTS);
+        gen.writeNumber(page.getTotalElements());
+        gen.writeFieldName(TOTAL_PAGES);
+        gen.writeNumber(page.getTotalPages());
+        gen.writeEndObject();
+    }
+
+    private void writeNullable(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
@@ -7,6 +7,10 @@ public class MemberSearchCond {
 
     private String username;
 
+    private String usernamePrefix;
+
+    private String usernameContains;
+
     private String teamName;
 
     private Integer ageGoe;
@@ -0,0 +1,21 @@
+package spring.querydsl.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class MemberSlice {
+
+    private final List<MemberTeamDto> content;
+
+    private final boolean hasNext;
+
+    private final String nextCursor;
+
+    public MemberSlice(List<MemberTeamDto> content, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,52 @@
+package spring.querydsl.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * 페이지마다 수천 건씩 나가는 MemberTeamDto 를 리플렉션 없이 필드 순서대로 바로 쓴다.
+ * 필드 이름은 미리 인코딩해 둔다.
+ */
+@JsonComponent
+public class MemberTeamDtoSerializer extends StdSerializer<MemberTeamDto> {
+
+    private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString TEAM_ID = new SerializedString("teamId");
+    private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+    public MemberTeamDtoSerializer() {
+        super(MemberTeamDto.class);
+    }
+
+    @Override
+    public void serialize(MemberTeamDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(dto);
+        gen.writeFieldName(MEMBER_ID);
+        writeNullable(gen, dto.getMemberId());
+        gen.writeFieldName(USERNAME);
+        gen.writeString(dto.getUsername());
+        gen.writeFieldName(AGE);
+        gen.writeNumber(dto.getAge());
+        gen.writeFieldName(TEAM_ID);
+        writeNullable(gen, dto.getTeamId());
+        gen.writeFieldName(TEAM_NAME);
+        gen.writeString(dto.getTeamName());
+        gen.writeEndObject();
+    }
+
+    private void writeNullable(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package spring.querydsl.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * PageImpl 직렬화와 같은 필드를 같은 이름으로 내보내 기존 클라이언트와 호환되게 유지한다.
+ * PageImpl 과 달리 content 를 제외한 값을 만들 때 한 번에 계산해 두고, content 는 MemberTeamDtoSerializer 가 쓴다.
+ * 필드를 줄인 응답이 필요하면 Accept 로 CompactMemberPage 를 요청한다.
+ */
+@Getter
+public class PageResponse<T> {
+
+    private final List<T> content;
+
+    private final Pageable pageable;
+
+    private final boolean last;
+
+    private final int totalPages;
+
+    private final long totalElements;
+
+    private final int size;
+
+    private final int number;
+
+    private final Sort sort;
+
+    private final boolean first;
+
+    private final int numberOfElements;
+
+    private final boolean empty;
+
+    private PageResponse(Page<T> page) {
+        this.content = page.getContent();
+        this.pageable = page.getPageable();
+        this.last = page.isLast();
+        this.totalPages = page.getTotalPages();
+        this.totalElements = page.getTotalElements();
+        this.size = page.getSize();
+        this.number = page.getNumber();
+        this.sort = page.getSort();
+        this.first = page.isFirst();
+        this.numberOfElements = page.getNumberOfElements();
+        this.empty = page.isEmpty();
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page);
+    }
+}
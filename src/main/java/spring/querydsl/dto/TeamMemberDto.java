@@ -0,0 +1,21 @@
+package spring.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class TeamMemberDto {
+
+    private Long memberId;
+
+    private String username;
+
+    private int age;
+
+    @QueryProjection
+    public TeamMemberDto(Long memberId, String username, int age) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+    }
+}
@@ -0,0 +1,30 @@
+package spring.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class TeamStatisticsDto {
+
+    private Long teamId;
+
+    private String teamName;
+
+    private long memberCount;
+
+    private double avgAge;
+
+    private int minAge;
+
+    private int maxAge;
+
+    @QueryProjection
+    public TeamStatisticsDto(Long teamId, String teamName, Long memberCount, Double avgAge, Integer minAge, Integer maxAge) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.avgAge = avgAge;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,26 @@
+package spring.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * memberCount 는 team 의 전체 member 수다. member 수를 제한해 조회하면 members 는 그보다 적을 수 있다.
+ */
+@Data
+public class TeamWithMembersDto {
+
+    private Long teamId;
+
+    private String teamName;
+
+    private long memberCount;
+
+    private List<TeamMemberDto> members = new ArrayList<>();
+
+    public TeamWithMembersDto(Long teamId, String teamName) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+    }
+}
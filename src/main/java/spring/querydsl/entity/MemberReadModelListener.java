@@ -0,0 +1,47 @@
+package spring.querydsl.entity;
+
+import spring.querydsl.repository.MemberReadModel;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member/Team 변경을 읽기 모델에 넘긴다. 읽기 모델이 트랜잭션 단위로 모아 커밋된 뒤에 반영한다.
+ */
+public class MemberReadModelListener {
+
+    private final MemberReadModel readModel;
+
+    public MemberReadModelListener(MemberReadModel readModel) {
+        this.readModel = readModel;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void put(Object entity) {
+        if (!readModel.isEnabled()) {
+            return;
+        }
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            readModel.putMember(member.getId(), member.getUsername(), member.getAge(),
+                    member.getTeam() != null ? member.getTeam().getId() : null);
+        } else if (entity instanceof Team) {
+            Team team = (Team) entity;
+            readModel.putTeam(team.getId(), team.getName());
+        }
+    }
+
+    @PostRemove
+    public void remove(Object entity) {
+        if (!readModel.isEnabled()) {
+            return;
+        }
+        if (entity instanceof Member) {
+            readModel.removeMember(((Member) entity).getId());
+        } else if (entity instanceof Team) {
+            readModel.removeTeam(((Team) entity).getId());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package spring.querydsl.entity;
+
+import spring.querydsl.service.MemberSearchResultCache;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Hibernate 가 SpringBeanContainer 를 통해 생성하므로 생성자 주입을 받을 수 있다.
+ */
+public class SearchCacheInvalidationListener {
+
+    private final MemberSearchResultCache resultCache;
+
+    public SearchCacheInvalidationListener(MemberSearchResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        resultCache.invalidate();
+    }
+}
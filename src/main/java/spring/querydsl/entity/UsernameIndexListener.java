@@ -0,0 +1,51 @@
+package spring.querydsl.entity;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.querydsl.repository.UsernameTrigramIndex;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 롤백된 변경이 색인에 남지 않도록 트랜잭션이 커밋된 뒤에 반영한다.
+ */
+public class UsernameIndexListener {
+
+    private final UsernameTrigramIndex usernameIndex;
+
+    public UsernameIndexListener(UsernameTrigramIndex usernameIndex) {
+        this.usernameIndex = usernameIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void put(Member member) {
+        Long id = member.getId();
+        String username = member.getUsername();
+        afterCommit(() -> usernameIndex.put(id, username));
+    }
+
+    @PostRemove
+    public void remove(Member member) {
+        Long id = member.getId();
+        afterCommit(() -> usernameIndex.remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!usernameIndex.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package spring.querydsl.monitoring;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate Statistics 를 노출하는 유일한 곳이다. 2차 캐시/쿼리 캐시 적중률도 여기서 본다.
+ * queryPlanCache 는 같은 JPQL 문자열을 다시 파싱하지 않고 재사용한 횟수다.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory emf) {
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        stats.put("queryExecutionMaxTime", statistics.getQueryExecutionMaxTime());
+        stats.put("queryExecutionMaxTimeQueryString", statistics.getQueryExecutionMaxTimeQueryString());
+        stats.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        stats.put("entityLoadCount", statistics.getEntityLoadCount());
+        stats.put("entityFetchCount", statistics.getEntityFetchCount());
+        stats.put("collectionFetchCount", statistics.getCollectionFetchCount());
+        stats.put("flushCount", statistics.getFlushCount());
+        stats.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        stats.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        stats.put("secondLevelCachePutCount", statistics.getSecondLevelCachePutCount());
+        stats.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        stats.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        stats.put("queryCachePutCount", statistics.getQueryCachePutCount());
+        stats.put("queryPlanCacheHitCount", statistics.getQueryPlanCacheHitCount());
+        stats.put("queryPlanCacheMissCount", statistics.getQueryPlanCacheMissCount());
+        return stats;
+    }
+}
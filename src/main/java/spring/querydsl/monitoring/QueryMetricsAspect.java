@@ -0,0 +1,117 @@
+package spring.querydsl.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * member 리포지토리 메서드마다 실행 시간과 결과 행 수를 기록하고,
+ * 임계값보다 느린 호출은 검색 조건과 함께 로그로 남긴다.
+ * 호출 동안 MDC 에 queryId 를 넣어 같은 호출에서 남은 org.hibernate.SQL_SLOW 로그와 이어 볼 수 있게 한다.
+ * Stream 을 반환하는 메서드는 스트림을 닫을 때까지(소비 시간 포함)를 잰다.
+ */
+@Slf4j
+@Aspect
+@Component
+public class QueryMetricsAspect {
+
+    public static final String QUERY_ID = "queryId";
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+
+    public QueryMetricsAspect(MeterRegistry meterRegistry,
+                              @Value("${member.query.slow-threshold:200ms}") Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Around("execution(public * spring.querydsl.repository.MemberJpaRepository.*(..))" +
+            " || execution(public * spring.querydsl.repository.MemberQueryRepositoryImpl.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+
+        String outerQueryId = MDC.get(QUERY_ID);
+        String queryId = outerQueryId != null ? outerQueryId : UUID.randomUUID().toString().substring(0, 8);
+        MDC.put(QUERY_ID, queryId);
+
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            if (result instanceof Stream) {
+                return measureOnClose((Stream<?>) result, joinPoint, repository, method, queryId, start);
+            }
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (failure != null || !(result instanceof Stream)) {
+                record(joinPoint, repository, method, queryId, System.nanoTime() - start, rows(result), failure);
+            }
+            if (outerQueryId == null) {
+                MDC.remove(QUERY_ID);
+            }
+        }
+    }
+
+    private Stream<?> measureOnClose(Stream<?> stream, ProceedingJoinPoint joinPoint, String repository, String method,
+                                     String queryId, long start) {
+        LongAdder rows = new LongAdder();
+        return stream
+                .peek(row -> rows.increment())
+                .onClose(() -> record(joinPoint, repository, method, queryId, System.nanoTime() - start, rows.sum(), null));
+    }
+
+    private void record(ProceedingJoinPoint joinPoint, String repository, String method, String queryId,
+                        long elapsed, long rows, Throwable failure) {
+        Timer.builder("member.repository.query")
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", failure == null ? "SUCCESS" : "ERROR")
+                .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsed));
+
+        if (rows >= 0) {
+            DistributionSummary.builder("member.repository.rows")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+
+        if (elapsed >= slowThresholdNanos) {
+            log.warn("slow query {}.{} took {}ms, queryId={}, failed={}, args={}", repository, method, elapsed / 1_000_000,
+                    queryId, failure != null, Arrays.toString(joinPoint.getArgs()));
+        }
+    }
+
+    private long rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        return -1;
+    }
+}
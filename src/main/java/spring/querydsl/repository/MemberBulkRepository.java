@@ -0,0 +1,169 @@
+package spring.querydsl.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+import spring.querydsl.service.MemberSearchResultCache;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static spring.querydsl.entity.QMember.*;
+import static spring.querydsl.entity.QTeam.*;
+
+/**
+ * MemberSearchCond 에 맞는 member 를 벌크 쿼리로 수정/삭제한다.
+ * id 순서로 chunkSize 개씩 나눠 청크마다 트랜잭션을 커밋해 락 유지 시간을 제한하고,
+ * 벌크 쿼리는 영속성 컨텍스트를 거치지 않으므로 청크마다 먼저 flush 한다.
+ * 이미 트랜잭션 안에서 호출하면 그 트랜잭션에 참여하고, 바뀐 Member 만 영속성 컨텍스트에서 떼어 낸다.
+ */
+@Repository
+public class MemberBulkRepository {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberSearchResultCache resultCache;
+    private final MemberReadModel readModel;
+    private final int chunkSize;
+
+    public MemberBulkRepository(EntityManager em, JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager,
+                                MemberSearchResultCache resultCache, MemberReadModel readModel,
+                                @Value("${member.bulk.chunk-size:1000}") int chunkSize) {
+        this.em = em;
+        this.queryFactory = queryFactory;
+        this.resultCache = resultCache;
+        this.readModel = readModel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public long addAge(MemberSearchCond cond, int delta) {
+        return executeInChunks(cond, where -> queryFactory
+                .update(member)
+                .set(member.age, member.age.add(delta))
+                .where(where)
+                .execute());
+    }
+
+    public long changeTeam(MemberSearchCond cond, Long teamId) {
+        return executeInChunks(cond, where -> queryFactory
+                .update(member)
+                .set(member.team, em.getReference(Team.class, teamId))
+                .where(where)
+                .execute());
+    }
+
+    public long delete(MemberSearchCond cond) {
+        return executeInChunks(cond, where -> queryFactory
+                .delete(member)
+                .where(where)
+                .execute());
+    }
+
+    /**
+     * 조건에 맞는 id 를 직전 청크의 마지막 id 다음부터 chunkSize 개씩 골라 id IN (...) 으로 수정/삭제한다.
+     * id 범위로 나누지 않으므로 id 가 듬성듬성해도 청크마다 처리하는 행 수가 일정하다.
+     */
+    private long executeInChunks(MemberSearchCond cond, ToLongFunction<Predicate> bulk) {
+        List<Long> chunk = new ArrayList<>();
+        long affected = 0;
+        do {
+            Long lastId = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1);
+            affected += transactionTemplate.execute(status -> {
+                chunk.clear();
+                chunk.addAll(queryFactory
+                        .select(member.id)
+                        .from(member)
+                        .where(conditions(cond).and(lastId != null ? member.id.gt(lastId) : null))
+                        .orderBy(member.id.asc())
+                        .limit(chunkSize)
+                        .fetch());
+                if (chunk.isEmpty()) {
+                    return 0L;
+                }
+
+                em.flush();
+                long count = bulk.applyAsLong(member.id.in(chunk));
+                if (!status.isNewTransaction()) {
+                    detach(chunk);
+                }
+                // 벌크 쿼리는 엔티티 리스너를 거치지 않으므로 검색 결과 캐시를 직접 비운다
+                resultCache.invalidate();
+                return count;
+            });
+        } while (chunk.size() == chunkSize);
+
+        readModel.reloadAfterCommit();
+        return affected;
+    }
+
+    /**
+     * 호출한 쪽 트랜잭션에 참여했다면 그 영속성 컨텍스트에서 이번 청크의 Member 만 떼어 내 다음 조회 때 DB 값을 읽게 한다.
+     * getReference 는 관리 중이 아닌 id 마다 프록시를 만들므로, 영속성 컨텍스트에 이미 있는 엔티티만 찾아서 뗀다.
+     * 새 트랜잭션이면 커밋과 함께 영속성 컨텍스트가 닫히므로 할 일이 없다.
+     */
+    private void detach(List<Long> ids) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+        for (Long id : ids) {
+            Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                em.detach(managed);
+            }
+        }
+    }
+
+    private BooleanBuilder conditions(MemberSearchCond cond) {
+        return new BooleanBuilder()
+                .and(usernameEq(cond.getUsername()))
+                .and(usernameStartsWith(cond.getUsernamePrefix()))
+                .and(usernameContains(cond.getUsernameContains()))
+                .and(teamNameEq(cond.getTeamName()))
+                .and(ageGoe(cond.getAgeGoe()))
+                .and(ageLoe(cond.getAgeLoe()));
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return StringUtils.hasText(username) ? member.username.eq(username) : null;
+    }
+
+    private BooleanExpression usernameStartsWith(String usernamePrefix) {
+        return StringUtils.hasText(usernamePrefix) ? member.username.startsWith(usernamePrefix) : null;
+    }
+
+    private BooleanExpression usernameContains(String usernameContains) {
+        return StringUtils.hasText(usernameContains) ? member.username.contains(usernameContains) : null;
+    }
+
+    /**
+     * 벌크 쿼리에는 join 을 쓸 수 없으므로 서브쿼리로 team 을 찾는다.
+     */
+    private BooleanExpression teamNameEq(String teamName) {
+        return StringUtils.hasText(teamName)
+                ? member.team.id.in(JPAExpressions.select(team.id).from(team).where(team.name.eq(teamName)))
+                : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
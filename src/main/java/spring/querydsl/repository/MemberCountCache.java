@@ -0,0 +1,66 @@
+package spring.querydsl.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import spring.querydsl.dto.MemberSearchCond;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 검색 조건별 count 결과를 ttl 동안 재사용한다.
+ * 깊은 페이지를 넘길 때마다 같은 count 쿼리가 반복되는 것을 막기 위한 근사 count 모드이며,
+ * ttl 이 0 이면 항상 count 쿼리를 실행한다.
+ */
+@Component
+public class MemberCountCache {
+
+    private static final int MAX_ENTRIES = 1_000;
+
+    private final long ttlNanos;
+    private final Map<List<Object>, Entry> cache = new ConcurrentHashMap<>();
+
+    public MemberCountCache(@Value("${member.search.count-cache-ttl:0s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long get(MemberSearchCond cond, LongSupplier countQuery) {
+        if (ttlNanos <= 0) {
+            return countQuery.getAsLong();
+        }
+
+        List<Object> key = Arrays.asList(cond.getUsername(), cond.getUsernamePrefix(), cond.getUsernameContains(),
+                cond.getTeamName(), cond.getAgeGoe(), cond.getAgeLoe());
+        long now = System.nanoTime();
+        Entry entry = cache.get(key);
+        if (entry != null && now - entry.createdAt < ttlNanos) {
+            return entry.count;
+        }
+
+        long count = countQuery.getAsLong();
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+        cache.put(key, new Entry(count, now));
+        return count;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static class Entry {
+
+        private final long count;
+        private final long createdAt;
+
+        Entry(long count, long createdAt) {
+            this.count = count;
+            this.createdAt = createdAt;
+        }
+    }
+}
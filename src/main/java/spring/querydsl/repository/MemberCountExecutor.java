@@ -0,0 +1,149 @@
+package spring.querydsl.repository;
+
+import org.hibernate.Session;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * searchPage 의 count 쿼리를 별도 스레드의 읽기 전용 트랜잭션에서 content 쿼리와 동시에 실행한다.
+ * 풀과 큐가 가득 차면 작업을 받지 않고, 호출한 쪽은 기존처럼 순차로 count 를 실행한다.
+ */
+@Component
+public class MemberCountExecutor implements DisposableBean {
+
+    private final EntityManager em;
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public MemberCountExecutor(EntityManager em, PlatformTransactionManager transactionManager,
+                               @Value("${member.search.parallel-count.enabled:false}") boolean enabled,
+                               @Value("${member.search.parallel-count.threads:4}") int threads,
+                               @Value("${member.search.parallel-count.timeout:5s}") Duration timeout) {
+        this.em = em;
+        this.enabled = enabled;
+        this.timeoutMillis = timeout.toMillis();
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                new CustomizableThreadFactory("member-count-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 풀이 포화 상태면 비어 있는 Optional 을 돌려준다.
+     */
+    public Optional<PendingCount> submit(LongSupplier countQuery) {
+        PendingCount pending = new PendingCount();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        try {
+            pending.future = executor.submit(() -> {
+                // 호출한 쪽의 queryId 를 이어받아 count 쿼리 로그도 같은 호출로 묶는다
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    return transactionTemplate.execute(status -> pending.run(countQuery));
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return Optional.empty();
+        }
+        return Optional.of(pending);
+    }
+
+    /**
+     * 실행 중인 count 쿼리. Future.cancel 은 JDBC 쿼리를 멈추지 못하므로
+     * cancel 은 작업 스레드의 Session 으로 실행 중인 Statement 를 취소한다.
+     */
+    public class PendingCount {
+
+        private final AtomicReference<Session> session = new AtomicReference<>();
+        private volatile boolean cancelled;
+        private volatile Future<Long> future;
+
+        private long run(LongSupplier countQuery) {
+            session.set(em.unwrap(Session.class));
+            try {
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+                return countQuery.getAsLong();
+            } finally {
+                session.set(null);
+            }
+        }
+
+        public long await() {
+            try {
+                return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("count 쿼리를 기다리는 중 인터럽트되었습니다.", e);
+            } catch (TimeoutException e) {
+                cancel();
+                throw new QueryTimeoutException("count 쿼리가 " + timeoutMillis + "ms 안에 끝나지 않았습니다.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        public void cancel() {
+            if (future.isDone()) {
+                return;
+            }
+            cancelled = true;
+            future.cancel(false);
+            Session running = session.get();
+            if (running == null) {
+                return;
+            }
+            try {
+                running.cancelQuery();
+            } catch (RuntimeException e) {
+                // 취소하는 사이에 쿼리가 끝나 Session 이 닫혔다. 더 할 일이 없다.
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,45 @@
+package spring.querydsl.repository;
+
+import lombok.Getter;
+import spring.querydsl.dto.MemberTeamDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * keyset 페이징의 마지막 위치. id 정렬이면 id 만, age 정렬이면 (age, id) 를 담아
+ * 클라이언트에는 base64 토큰으로만 노출한다.
+ */
+@Getter
+class MemberCursor {
+
+    private final Integer age;
+    private final long id;
+
+    private MemberCursor(Integer age, long id) {
+        this.age = age;
+        this.id = id;
+    }
+
+    static MemberCursor of(MemberTeamDto last, boolean orderByAge) {
+        return new MemberCursor(orderByAge ? last.getAge() : null, last.getMemberId());
+    }
+
+    static MemberCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                return new MemberCursor(null, Long.parseLong(value));
+            }
+            return new MemberCursor(Integer.valueOf(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + token, e);
+        }
+    }
+
+    String encode() {
+        String value = age != null ? age + ":" + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
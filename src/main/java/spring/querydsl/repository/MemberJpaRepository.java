@@ -1,10 +1,14 @@
 package spring.querydsl.repository;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import spring.querydsl.dto.MemberSearchCond;
 import spring.querydsl.dto.MemberTeamDto;
@@ -14,6 +18,8 @@ import spring.querydsl.entity.Member;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static spring.querydsl.entity.QMember.*;
 import static spring.querydsl.entity.QTeam.*;
@@ -22,8 +28,12 @@ import static spring.querydsl.entity.QTeam.*;
 @RequiredArgsConstructor
 public class MemberJpaRepository {
 
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final TeamIdResolver teamIdResolver;
+    private final UsernameTrigramIndex usernameIndex;
 
     public void save(Member member) {
         em.persist(member);
@@ -51,11 +61,21 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> searchByBuilder(MemberSearchCond cond) {
+        Optional<Predicate> usernameContains = usernameContains(cond.getUsernameContains());
+        if (usernameContains.isEmpty()) {
+            return List.of();
+        }
+
         BooleanBuilder builder = new BooleanBuilder();
         if (StringUtils.hasText(cond.getUsername())) {
             builder.and(member.username.eq(cond.getUsername()));
         }
+        if (StringUtils.hasText(cond.getUsernamePrefix())) {
+            builder.and(member.username.startsWith(cond.getUsernamePrefix()));
+        }
+        builder.and(usernameContains.get());
         if (StringUtils.hasText(cond.getTeamName())) {
             builder.and(team.name.eq(cond.getTeamName()));
         }
@@ -66,47 +86,121 @@ public class MemberJpaRepository {
             builder.and(member.age.loe(cond.getAgeLoe()));
         }
 
-        return queryFactory
+        return joinTeam(queryFactory
                 .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+                .from(member), cond.getTeamName())
                 .where(builder)
                 .fetch();
     }
 
+    @Transactional(readOnly = true)
     public List<MemberTeamDto> searchByWhere(MemberSearchCond cond) {
-        return queryFactory
+        Optional<Predicate> resolved = resolve(cond);
+        if (resolved.isEmpty()) {
+            return List.of();
+        }
+
+        return joinTeam(queryFactory
                 .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+                .from(member), cond.getTeamName())
                 .where(
                         usernameEq(cond.getUsername()),
-                        teamNameEq(cond.getTeamName()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        resolved.get(),
                         ageGoe(cond.getAgeGoe()),
                         ageLoe(cond.getAgeLoe())
                 )
                 .fetch();
     }
 
+    /**
+     * 결과를 한 번에 메모리에 올리지 않고 fetch size 단위로 읽는다.
+     * DTO 프로젝션이라 영속성 컨텍스트에 엔티티가 쌓이지 않으며, 트랜잭션 안에서 소비한 뒤 반드시 닫아야 한다.
+     */
+    public Stream<MemberTeamDto> streamByWhere(MemberSearchCond cond) {
+        Optional<Predicate> resolved = resolve(cond);
+        if (resolved.isEmpty()) {
+            return Stream.empty();
+        }
+
+        return joinTeam(queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member), cond.getTeamName())
+                .where(
+                        usernameEq(cond.getUsername()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        resolved.get(),
+                        ageGoe(cond.getAgeGoe()),
+                        ageLoe(cond.getAgeLoe())
+                )
+                .orderBy(member.id.asc())
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .stream();
+    }
+
     public List<Member> searchMember(MemberSearchCond cond) {
+        Optional<Predicate> resolved = resolve(cond);
+        if (resolved.isEmpty()) {
+            return List.of();
+        }
+
         return queryFactory
                 .selectFrom(member)
                 .join(member.team, team)
                 .where(
                         usernameEq(cond.getUsername()),
-                        teamNameEq(cond.getTeamName()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        resolved.get(),
                         ageGoe(cond.getAgeGoe()),
                         ageLoe(cond.getAgeLoe())
                 )
                 .fetch();
     }
 
+    /**
+     * teamName 과 usernameContains 를 메모리(team id 캐시, 3-gram 색인)로 먼저 풀어 하나의 조건으로 합친다.
+     * 어느 하나라도 맞는 member 가 없으면 비어 있는 Optional 을 돌려주고, 호출한 쪽은 쿼리를 실행하지 않고 빈 결과를 돌려준다.
+     */
+    private Optional<Predicate> resolve(MemberSearchCond cond) {
+        return teamIdResolver.teamNameEq(cond.getTeamName())
+                .flatMap(teamNameEq -> usernameContains(cond.getUsernameContains())
+                        .map(usernameContains -> new BooleanBuilder(teamNameEq).and(usernameContains)));
+    }
+
+    /**
+     * teamName 조건이 있으면 team 이 없는 member 는 어차피 걸러지므로 inner join 으로 바꾼다.
+     * left join 은 member 를 먼저 읽어야 하지만 inner join 이면 idx_team_name 으로 team 을 찾고
+     * idx_member_team_age 로 member 에 들어갈 수 있다.
+     */
+    private <T> JPAQuery<T> joinTeam(JPAQuery<T> query, String teamName) {
+        return StringUtils.hasText(teamName) ? query.join(member.team, team) : query.leftJoin(member.team, team);
+    }
+
     private BooleanExpression usernameEq(String username) {
         return StringUtils.hasText(username) ? member.username.eq(username) : null;
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return StringUtils.hasText(teamName) ? team.name.eq(teamName) : null;
+    /**
+     * 'prefix%' 는 username 인덱스로 범위 검색이 된다.
+     */
+    private BooleanExpression usernameStartsWith(String usernamePrefix) {
+        return StringUtils.hasText(usernamePrefix) ? member.username.startsWith(usernamePrefix) : null;
+    }
+
+    /**
+     * 3-gram 색인이 후보를 좁혀 주면 id IN 조건을 더해 전체 스캔을 피한다.
+     * 후보가 하나도 없으면 어떤 member 도 맞지 않으므로 비어 있는 Optional 을 돌려준다.
+     */
+    private Optional<Predicate> usernameContains(String usernameContains) {
+        if (!StringUtils.hasText(usernameContains)) {
+            return Optional.of(new BooleanBuilder());
+        }
+        BooleanExpression contains = member.username.contains(usernameContains);
+        Optional<Set<Long>> candidates = usernameIndex.candidates(usernameContains);
+        if (candidates.isEmpty()) {
+            return Optional.of(contains);
+        }
+        return candidates.get().isEmpty() ? Optional.empty() : Optional.of(member.id.in(candidates.get()).and(contains));
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
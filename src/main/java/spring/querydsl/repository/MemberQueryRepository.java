@@ -3,6 +3,7 @@ package spring.querydsl.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberSlice;
 import spring.querydsl.dto.MemberTeamDto;
 
 import java.util.List;
@@ -12,4 +13,6 @@ public interface MemberQueryRepository {
     List<MemberTeamDto> search(MemberSearchCond cond);
 
     Page<MemberTeamDto> searchPage(MemberSearchCond cond, Pageable pageable);
+
+    MemberSlice searchSlice(MemberSearchCond cond, String cursor, int size, boolean orderByAge);
 }
@@ -1,5 +1,8 @@
 package spring.querydsl.repository;
 
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -7,32 +10,47 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberSlice;
 import spring.querydsl.dto.MemberTeamDto;
 import spring.querydsl.dto.QMemberTeamDto;
-import spring.querydsl.entity.Member;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
 
 import static spring.querydsl.entity.QMember.*;
 import static spring.querydsl.entity.QTeam.*;
 
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class MemberQueryRepositoryImpl implements MemberQueryRepository {
 
     private final JPAQueryFactory queryFactory;
+    private final MemberCountCache countCache;
+    private final TeamIdResolver teamIdResolver;
+    private final MemberCountExecutor countExecutor;
+    private final UsernameTrigramIndex usernameIndex;
 
     @Override
     public List<MemberTeamDto> search(MemberSearchCond cond) {
-        return queryFactory
+        Optional<Predicate> resolved = resolve(cond);
+        if (resolved.isEmpty()) {
+            return List.of();
+        }
+
+        return joinTeam(queryFactory
                 .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+                .from(member), cond.getTeamName())
                 .where(
                         usernameEq(cond.getUsername()),
-                        teamNameEq(cond.getTeamName()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        resolved.get(),
                         ageGoe(cond.getAgeGoe()),
                         ageLoe(cond.getAgeLoe())
                 )
@@ -41,40 +59,172 @@ public class MemberQueryRepositoryImpl implements MemberQueryRepository {
 
     @Override
     public Page<MemberTeamDto> searchPage(MemberSearchCond cond, Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
+        Optional<Predicate> resolved = resolve(cond);
+        if (resolved.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+
+        LongSupplier total = () -> countCache.get(cond, () -> countQuery(cond, resolved.get()).fetchOne());
+
+        // 첫 페이지는 content 가 가득 찼을 때만 count 가 필요하므로 동시에 띄우지 않는다.
+        Optional<MemberCountExecutor.PendingCount> pending = countExecutor.isEnabled() && pageable.getOffset() > 0
+                ? countExecutor.submit(total)
+                : Optional.empty();
+        if (pending.isEmpty()) {
+            return PageableExecutionUtils.getPage(content(cond, resolved.get(), pageable), pageable, total);
+        }
+
+        // content 만으로 전체 수를 알 수 있는 마지막 페이지면 기다리지 않고 취소한다.
+        MemberCountExecutor.PendingCount count = pending.get();
+        try {
+            return PageableExecutionUtils.getPage(content(cond, resolved.get(), pageable), pageable, count::await);
+        } finally {
+            count.cancel();
+        }
+    }
+
+    /**
+     * 정렬이 있으면 허용된 속성만 ORDER BY 로 옮긴다.
+     */
+    private List<MemberTeamDto> content(MemberSearchCond cond, Predicate resolved, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        JPAQuery<MemberTeamDto> query = joinTeam(queryFactory
                 .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+                .from(member), cond.getTeamName())
                 .where(
                         usernameEq(cond.getUsername()),
-                        teamNameEq(cond.getTeamName()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        resolved,
                         ageGoe(cond.getAgeGoe()),
                         ageLoe(cond.getAgeLoe())
-                )
+                );
+
+        if (sort.isSorted()) {
+            query.orderBy(MemberSort.toOrderSpecifiers(sort));
+        }
+
+        return query
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
+    }
+
+    @Override
+    public MemberSlice searchSlice(MemberSearchCond cond, String cursor, int size, boolean orderByAge) {
+        MemberCursor after = cursor != null ? MemberCursor.decode(cursor) : null;
+        if (after != null && orderByAge != (after.getAge() != null)) {
+            throw new IllegalArgumentException("cursor 와 정렬 기준이 다릅니다.");
+        }
+        Optional<Predicate> resolved = resolve(cond);
+        if (resolved.isEmpty()) {
+            return new MemberSlice(List.of(), false, null);
+        }
+
+        List<MemberTeamDto> content = joinTeam(queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member), cond.getTeamName())
+                .where(
+                        usernameEq(cond.getUsername()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        resolved.get(),
+                        ageGoe(cond.getAgeGoe()),
+                        ageLoe(cond.getAgeLoe()),
+                        after(after)
+                )
+                .orderBy(orderByAge
+                        ? new OrderSpecifier[]{member.age.asc(), member.id.asc()}
+                        : new OrderSpecifier[]{member.id.asc()})
+                .limit(size + 1)
+                .fetch();
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        String nextCursor = hasNext ? MemberCursor.of(content.get(size - 1), orderByAge).encode() : null;
+
+        return new MemberSlice(content, hasNext, nextCursor);
+    }
+
+    /**
+     * 엔티티를 로딩하지 않고 select count 만 실행한다.
+     * team 조건이 없거나 team id 로 필터링할 때는 left join 이 결과 수에 영향을 주지 않으므로 생략한다.
+     * resolved 는 resolve 로 미리 풀어 둔 teamName, usernameContains 조건이다.
+     */
+    JPAQuery<Long> countQuery(MemberSearchCond cond, Predicate resolved) {
+        JPAQuery<Long> query = queryFactory
+                .select(member.count())
+                .from(member);
 
-        JPAQuery<Member> countQuery = queryFactory
-                .select(member)
-                .from(member)
-                .leftJoin(member.team, team)
+        if (StringUtils.hasText(cond.getTeamName()) && !teamIdResolver.isEnabled()) {
+            query.join(member.team, team);
+        }
+
+        return query
                 .where(
                         usernameEq(cond.getUsername()),
-                        teamNameEq(cond.getTeamName()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        resolved,
                         ageGoe(cond.getAgeGoe()),
                         ageLoe(cond.getAgeLoe())
                 );
+    }
+
+    private BooleanExpression after(MemberCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        if (cursor.getAge() == null) {
+            return member.id.gt(cursor.getId());
+        }
+        return member.age.gt(cursor.getAge())
+                .or(member.age.eq(cursor.getAge()).and(member.id.gt(cursor.getId())));
+    }
 
-        return PageableExecutionUtils.getPage(content, pageable, countQuery.fetch()::size);
+    /**
+     * teamName 과 usernameContains 를 메모리(team id 캐시, 3-gram 색인)로 먼저 풀어 하나의 조건으로 합친다.
+     * 어느 하나라도 맞는 member 가 없으면 비어 있는 Optional 을 돌려주고, 호출한 쪽은 쿼리를 실행하지 않고 빈 결과를 돌려준다.
+     */
+    private Optional<Predicate> resolve(MemberSearchCond cond) {
+        return teamIdResolver.teamNameEq(cond.getTeamName())
+                .flatMap(teamNameEq -> usernameContains(cond.getUsernameContains())
+                        .map(usernameContains -> new BooleanBuilder(teamNameEq).and(usernameContains)));
+    }
+
+    /**
+     * teamName 조건이 있으면 team 이 없는 member 는 어차피 걸러지므로 inner join 으로 바꾼다.
+     * left join 은 member 를 먼저 읽어야 하지만 inner join 이면 idx_team_name 으로 team 을 찾고
+     * idx_member_team_age 로 member 에 들어갈 수 있다.
+     */
+    private <T> JPAQuery<T> joinTeam(JPAQuery<T> query, String teamName) {
+        return StringUtils.hasText(teamName) ? query.join(member.team, team) : query.leftJoin(member.team, team);
     }
 
     private BooleanExpression usernameEq(String username) {
         return StringUtils.hasText(username) ? member.username.eq(username) : null;
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return StringUtils.hasText(teamName) ? team.name.eq(teamName) : null;
+    /**
+     * 'prefix%' 는 username 인덱스로 범위 검색이 된다.
+     */
+    private BooleanExpression usernameStartsWith(String usernamePrefix) {
+        return StringUtils.hasText(usernamePrefix) ? member.username.startsWith(usernamePrefix) : null;
+    }
+
+    /**
+     * 3-gram 색인이 후보를 좁혀 주면 id IN 조건을 더해 전체 스캔을 피한다.
+     * 후보가 하나도 없으면 어떤 member 도 맞지 않으므로 비어 있는 Optional 을 돌려준다.
+     */
+    private Optional<Predicate> usernameContains(String usernameContains) {
+        if (!StringUtils.hasText(usernameContains)) {
+            return Optional.of(new BooleanBuilder());
+        }
+        BooleanExpression contains = member.username.contains(usernameContains);
+        Optional<Set<Long>> candidates = usernameIndex.candidates(usernameContains);
+        if (candidates.isEmpty()) {
+            return Optional.of(contains);
+        }
+        return candidates.get().isEmpty() ? Optional.empty() : Optional.of(member.id.in(candidates.get()).and(contains));
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
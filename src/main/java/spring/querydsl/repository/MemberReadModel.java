@@ -0,0 +1,494 @@
+package spring.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static spring.querydsl.entity.QMember.*;
+import static spring.querydsl.entity.QTeam.*;
+
+/**
+ * member 검색용 메모리 읽기 모델. member 를 id 순 열 배열(id, age, team id, username 코드)로 들고,
+ * username 과 team 이름은 사전으로 한 번만 저장한다. age 조건은 (age, 위치) 순 정렬 인덱스로 범위를 찾는다.
+ * <p>
+ * 스냅샷은 불변이라 읽기는 락 없이 volatile 참조 하나만 읽는다. 변경은 MemberReadModelListener 가
+ * 트랜잭션마다 모아 커밋 뒤 한 번에 새 스냅샷으로 합치며, 벌크 쿼리 뒤에는 DB 에서 다시 읽는다.
+ * username, teamName, ageGoe, ageLoe 조건만 처리하고 prefix/contains 검색은 DB 에 맡긴다.
+ */
+@Slf4j
+@Component
+public class MemberReadModel {
+
+    private static final long NO_TEAM = 0L;
+    private static final int NO_USERNAME = -1;
+    private static final int LOAD_FETCH_SIZE = 1000;
+    private static final int INITIAL_MATCHES = 64;
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private volatile Snapshot snapshot;
+
+    public MemberReadModel(JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager,
+                           @Value("${member.search.read-model.enabled:false}") boolean enabled) {
+        this.queryFactory = queryFactory;
+        // 커밋 뒤(afterCommit)에도 호출되므로 항상 새 트랜잭션에서 읽는다
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean supports(MemberSearchCond cond) {
+        return enabled && snapshot != null
+                && !StringUtils.hasText(cond.getUsernamePrefix())
+                && !StringUtils.hasText(cond.getUsernameContains());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+
+        Builder builder = new Builder();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Tuple row : queryFactory.select(team.id, team.name).from(team).fetch()) {
+                builder.teamNames.put(row.get(team.id), row.get(team.name));
+            }
+            try (Stream<Tuple> rows = queryFactory
+                    .select(member.id, member.username, member.age, member.team.id)
+                    .from(member)
+                    .orderBy(member.id.asc())
+                    .setHint(QueryHints.HINT_FETCH_SIZE, LOAD_FETCH_SIZE)
+                    .stream()) {
+                rows.forEach(builder::addRow);
+            }
+        });
+        snapshot = builder.build();
+        log.info("member read model loaded: {} members, {} teams", snapshot.size, snapshot.teamNames.size());
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCond cond) {
+        Snapshot current = snapshot;
+        int[] matches = current.filter(cond);
+        return current.toDtos(matches, 0, matches.length);
+    }
+
+    /**
+     * 정렬 없는 페이지만 처리한다. 결과는 member id 순이며 전체 수는 필터 결과에서 바로 얻는다.
+     */
+    public Page<MemberTeamDto> searchPage(MemberSearchCond cond, Pageable pageable) {
+        Snapshot current = snapshot;
+        int[] matches = current.filter(cond);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(current.toDtos(matches, 0, matches.length), pageable, matches.length);
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.length);
+        int to = Math.min(from + pageable.getPageSize(), matches.length);
+        return new PageImpl<>(current.toDtos(matches, from, to), pageable, matches.length);
+    }
+
+    public void putMember(Long id, String username, int age, Long teamId) {
+        record(new Change(true, id, false, username, age, teamId != null ? teamId : NO_TEAM));
+    }
+
+    public void removeMember(Long id) {
+        record(new Change(true, id, true, null, 0, NO_TEAM));
+    }
+
+    public void putTeam(Long id, String name) {
+        record(new Change(false, id, false, name, 0, NO_TEAM));
+    }
+
+    public void removeTeam(Long id) {
+        record(new Change(false, id, true, null, 0, NO_TEAM));
+    }
+
+    /**
+     * 엔티티 리스너를 거치지 않는 벌크 쿼리 뒤에 호출한다. 트랜잭션 안이면 커밋된 뒤에 다시 읽는다.
+     */
+    public void reloadAfterCommit() {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            load();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                load();
+            }
+        });
+    }
+
+    private void record(Change change) {
+        if (!enabled || change.id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(change));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Change> pending = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Change> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberReadModel.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    /**
+     * 트랜잭션 하나의 변경을 id 순으로 현재 스냅샷과 병합해 새 스냅샷을 만든다.
+     * 아직 적재 전이면 적재가 커밋된 상태를 읽으므로 버린다.
+     */
+    private synchronized void apply(List<Change> changes) {
+        Snapshot current = snapshot;
+        if (current == null || changes.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> teamNames = current.teamNames;
+        TreeMap<Long, Change> members = new TreeMap<>();
+        for (Change change : changes) {
+            if (change.member) {
+                members.put(change.id, change);
+                continue;
+            }
+            if (teamNames == current.teamNames) {
+                teamNames = new HashMap<>(current.teamNames);
+            }
+            if (change.removed) {
+                teamNames.remove(change.id);
+            } else {
+                teamNames.put(change.id, change.name);
+            }
+        }
+
+        Builder builder = new Builder(current, teamNames, current.size + members.size());
+        int i = 0;
+        for (Change change : members.values()) {
+            while (i < current.size && current.ids[i] < change.id) {
+                builder.copy(current, i++);
+            }
+            if (i < current.size && current.ids[i] == change.id) {
+                i++;
+            }
+            if (!change.removed) {
+                builder.add(change.id, change.name, change.age, change.teamId);
+            }
+        }
+        while (i < current.size) {
+            builder.copy(current, i++);
+        }
+        snapshot = builder.build();
+    }
+
+    private static final class Change {
+
+        private final boolean member;
+        private final Long id;
+        private final boolean removed;
+        private final String name;
+        private final int age;
+        private final long teamId;
+
+        private Change(boolean member, Long id, boolean removed, String name, int age, long teamId) {
+            this.member = member;
+            this.id = id;
+            this.removed = removed;
+            this.name = name;
+            this.age = age;
+            this.teamId = teamId;
+        }
+    }
+
+    /**
+     * username 사전은 스냅샷끼리 공유하며 뒤에만 추가한다.
+     * 이전 스냅샷의 행은 추가된 코드를 참조하지 않으므로 그대로 읽어도 된다.
+     */
+    private static final class Builder {
+
+        private final Map<String, Integer> usernameCodes;
+        private String[] usernames;
+        private final Map<Long, String> teamNames;
+
+        private long[] ids;
+        private int[] ages;
+        private long[] teamIds;
+        private int[] usernameRefs;
+        private int size;
+
+        private Builder() {
+            this.usernameCodes = new ConcurrentHashMap<>();
+            this.usernames = new String[16];
+            this.teamNames = new HashMap<>();
+            allocate(1024);
+        }
+
+        private Builder(Snapshot base, Map<Long, String> teamNames, int capacity) {
+            this.usernameCodes = base.usernameCodes;
+            this.usernames = base.usernames;
+            this.teamNames = teamNames;
+            allocate(Math.max(capacity, 16));
+        }
+
+        private void allocate(int capacity) {
+            ids = new long[capacity];
+            ages = new int[capacity];
+            teamIds = new long[capacity];
+            usernameRefs = new int[capacity];
+        }
+
+        private void addRow(Tuple row) {
+            Long teamId = row.get(member.team.id);
+            add(row.get(member.id), row.get(member.username), row.get(member.age), teamId != null ? teamId : NO_TEAM);
+        }
+
+        private void add(long id, String username, int age, long teamId) {
+            ensureCapacity();
+            ids[size] = id;
+            ages[size] = age;
+            teamIds[size] = teamId;
+            usernameRefs[size] = code(username);
+            size++;
+        }
+
+        private void copy(Snapshot source, int row) {
+            ensureCapacity();
+            ids[size] = source.ids[row];
+            ages[size] = source.ages[row];
+            teamIds[size] = source.teamIds[row];
+            usernameRefs[size] = source.usernameRefs[row];
+            size++;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                teamIds = Arrays.copyOf(teamIds, capacity);
+                usernameRefs = Arrays.copyOf(usernameRefs, capacity);
+            }
+        }
+
+        private int code(String username) {
+            if (username == null) {
+                return NO_USERNAME;
+            }
+            Integer code = usernameCodes.get(username);
+            if (code != null) {
+                return code;
+            }
+            int next = usernameCodes.size();
+            if (next == usernames.length) {
+                usernames = Arrays.copyOf(usernames, next * 2);
+            }
+            usernames[next] = username;
+            usernameCodes.put(username, next);
+            return next;
+        }
+
+        private Snapshot build() {
+            // (age, 위치) 를 long 하나로 묶어 박싱 없이 정렬한다
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) ages[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            int[] byAge = new int[size];
+            int[] sortedAges = new int[size];
+            for (int i = 0; i < size; i++) {
+                byAge[i] = (int) keys[i];
+                sortedAges[i] = (int) (keys[i] >> 32);
+            }
+            return new Snapshot(ids, ages, teamIds, usernameRefs, size, byAge, sortedAges,
+                    usernameCodes, usernames, teamNames);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long[] ids;
+        private final int[] ages;
+        private final long[] teamIds;
+        private final int[] usernameRefs;
+        private final int size;
+        private final int[] byAge;
+        private final int[] sortedAges;
+        private final Map<String, Integer> usernameCodes;
+        private final String[] usernames;
+        private final Map<Long, String> teamNames;
+
+        private Snapshot(long[] ids, int[] ages, long[] teamIds, int[] usernameRefs, int size, int[] byAge, int[] sortedAges,
+                         Map<String, Integer> usernameCodes, String[] usernames, Map<Long, String> teamNames) {
+            this.ids = ids;
+            this.ages = ages;
+            this.teamIds = teamIds;
+            this.usernameRefs = usernameRefs;
+            this.size = size;
+            this.byAge = byAge;
+            this.sortedAges = sortedAges;
+            this.usernameCodes = usernameCodes;
+            this.usernames = usernames;
+            this.teamNames = teamNames;
+        }
+
+        /**
+         * 조건에 맞는 행 위치를 id 순으로 돌려준다. age 범위가 전체의 1/4 보다 좁으면 정렬 인덱스의 구간만 검사한다.
+         */
+        private int[] filter(MemberSearchCond cond) {
+            int username = NO_USERNAME;
+            if (StringUtils.hasText(cond.getUsername())) {
+                Integer code = usernameCodes.get(cond.getUsername());
+                if (code == null) {
+                    return new int[0];
+                }
+                username = code;
+            }
+
+            long[] teams = null;
+            if (StringUtils.hasText(cond.getTeamName())) {
+                teams = teamIds(cond.getTeamName());
+                if (teams.length == 0) {
+                    return new int[0];
+                }
+            }
+
+            int minAge = cond.getAgeGoe() != null ? cond.getAgeGoe() : Integer.MIN_VALUE;
+            int maxAge = cond.getAgeLoe() != null ? cond.getAgeLoe() : Integer.MAX_VALUE;
+            if (minAge > maxAge) {
+                return new int[0];
+            }
+
+            int from = cond.getAgeGoe() != null ? lowerBound(minAge) : 0;
+            int to = cond.getAgeLoe() != null ? lowerBound((long) maxAge + 1) : size;
+            boolean useAgeIndex = (cond.getAgeGoe() != null || cond.getAgeLoe() != null) && (to - from) * 4L < size;
+
+            int[] matches = new int[INITIAL_MATCHES];
+            int count = 0;
+            if (useAgeIndex) {
+                for (int i = from; i < to; i++) {
+                    int row = byAge[i];
+                    if (matches(row, username, teams)) {
+                        if (count == matches.length) {
+                            matches = Arrays.copyOf(matches, count * 2);
+                        }
+                        matches[count++] = row;
+                    }
+                }
+                Arrays.sort(matches, 0, count);
+            } else {
+                for (int row = 0; row < size; row++) {
+                    int age = ages[row];
+                    if (age >= minAge && age <= maxAge && matches(row, username, teams)) {
+                        if (count == matches.length) {
+                            matches = Arrays.copyOf(matches, count * 2);
+                        }
+                        matches[count++] = row;
+                    }
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+
+        private boolean matches(int row, int username, long[] teams) {
+            if (username != NO_USERNAME && usernameRefs[row] != username) {
+                return false;
+            }
+            if (teams == null) {
+                return true;
+            }
+            long teamId = teamIds[row];
+            for (long team : teams) {
+                if (team == teamId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long[] teamIds(String teamName) {
+            return teamNames.entrySet().stream()
+                    .filter(e -> teamName.equals(e.getValue()))
+                    .mapToLong(Map.Entry::getKey)
+                    .toArray();
+        }
+
+        /**
+         * sortedAges 에서 age 이상인 첫 위치.
+         */
+        private int lowerBound(long age) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedAges[mid] < age) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private List<MemberTeamDto> toDtos(int[] rows, int from, int to) {
+            List<MemberTeamDto> result = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int row = rows[i];
+                long teamId = teamIds[row];
+                int username = usernameRefs[row];
+                result.add(new MemberTeamDto(ids[row], username != NO_USERNAME ? usernames[username] : null, ages[row],
+                        teamId != NO_TEAM ? teamId : null, teamId != NO_TEAM ? teamNames.get(teamId) : null));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package spring.querydsl.repository;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static spring.querydsl.entity.QMember.*;
+import static spring.querydsl.entity.QTeam.*;
+
+/**
+ * Pageable 의 Sort 를 허용된 속성만 OrderSpecifier 로 바꾼다.
+ * 같은 값이 여러 행이면 페이지 경계가 흔들리므로 항상 member id 를 마지막 정렬 기준으로 붙이며,
+ * 방향은 마지막 정렬과 맞춰 (username, member_id), (age, member_id) 인덱스 순서대로 읽을 수 있게 한다.
+ */
+final class MemberSort {
+
+    private static final Map<String, ComparableExpressionBase<?>> PROPERTIES = Map.of(
+            "id", member.id,
+            "memberId", member.id,
+            "username", member.username,
+            "age", member.age,
+            "teamName", team.name);
+
+    private MemberSort() {
+    }
+
+    static OrderSpecifier<?>[] toOrderSpecifiers(Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        Order last = Order.ASC;
+        boolean orderedById = false;
+
+        for (Sort.Order order : sort) {
+            ComparableExpressionBase<?> property = PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new IllegalArgumentException("정렬할 수 없는 속성입니다: " + order.getProperty());
+            }
+            last = order.isAscending() ? Order.ASC : Order.DESC;
+            orders.add(last == Order.ASC ? property.asc() : property.desc());
+            if (property == member.id) {
+                orderedById = true;
+                break;
+            }
+        }
+
+        if (!orderedById) {
+            orders.add(new OrderSpecifier<>(last, member.id));
+        }
+        return orders.toArray(new OrderSpecifier[0]);
+    }
+}
@@ -0,0 +1,158 @@
+package spring.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import spring.querydsl.dto.AgeBucketDto;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.QTeamStatisticsDto;
+import spring.querydsl.dto.TeamStatisticsDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static spring.querydsl.entity.QMember.*;
+import static spring.querydsl.entity.QTeam.*;
+
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberStatisticsRepository {
+
+    /**
+     * 구간 하나가 select 컬럼 하나가 되므로 한 번에 계산할 수 있는 구간 수를 제한한다.
+     */
+    private static final int MAX_AGE_BUCKETS = 100;
+
+    private final JPAQueryFactory queryFactory;
+    private final TeamIdResolver teamIdResolver;
+
+    /**
+     * team 별 member 수와 나이 통계. team 이 없는 member 는 teamId 가 null 인 행으로 묶인다.
+     */
+    public List<TeamStatisticsDto> teamStatistics(MemberSearchCond cond) {
+        Optional<Predicate> teamNameEq = teamIdResolver.teamNameEq(cond.getTeamName());
+        if (teamNameEq.isEmpty()) {
+            return List.of();
+        }
+
+        return queryFactory
+                .select(new QTeamStatisticsDto(
+                        team.id,
+                        team.name,
+                        member.count(),
+                        member.age.avg(),
+                        member.age.min(),
+                        member.age.max()))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(cond.getUsername()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        usernameContains(cond.getUsernameContains()),
+                        teamNameEq.get(),
+                        ageGoe(cond.getAgeGoe()),
+                        ageLoe(cond.getAgeLoe())
+                )
+                .groupBy(team.id, team.name)
+                .orderBy(team.name.asc())
+                .fetch();
+    }
+
+    /**
+     * bucketSize 단위 나이 구간별 member 수를 구간마다 sum(case ...) 컬럼 하나로 계산해 한 행으로 가져온다.
+     * 마지막 구간은 maxAge 이상 전체를 포함한다.
+     */
+    public List<AgeBucketDto> ageHistogram(MemberSearchCond cond, int bucketSize, int maxAge) {
+        int bucketCount = ageBucketCount(bucketSize, maxAge);
+        Optional<Predicate> teamNameEq = teamIdResolver.teamNameEq(cond.getTeamName());
+
+        List<NumberExpression<Long>> buckets = new ArrayList<>();
+        for (int i = 0; i < bucketCount; i++) {
+            int from = (int) ((long) i * bucketSize);
+            int to = (int) Math.min((long) from + bucketSize, maxAge);
+            buckets.add(countWhen(member.age.goe(from).and(member.age.lt(to))));
+        }
+        buckets.add(countWhen(member.age.goe(maxAge)));
+
+        // 이름에 해당하는 team 이 없으면 조회하지 않고 모든 구간을 0 으로 채운다
+        Tuple row = teamNameEq.isEmpty() ? null : queryFactory
+                .select(buckets.toArray(new NumberExpression[0]))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(cond.getUsername()),
+                        usernameStartsWith(cond.getUsernamePrefix()),
+                        usernameContains(cond.getUsernameContains()),
+                        teamNameEq.get(),
+                        ageGoe(cond.getAgeGoe()),
+                        ageLoe(cond.getAgeLoe())
+                )
+                .fetchOne();
+
+        List<AgeBucketDto> histogram = new ArrayList<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            boolean last = i == buckets.size() - 1;
+            int from = last ? maxAge : (int) ((long) i * bucketSize);
+            Long count = row != null ? row.get(buckets.get(i)) : null;
+            histogram.add(new AgeBucketDto(
+                    from,
+                    last ? null : (int) Math.min((long) from + bucketSize, maxAge) - 1,
+                    count != null ? count : 0));
+        }
+        return histogram;
+    }
+
+    /**
+     * ceil(maxAge / bucketSize). 0 이하이거나 MAX_AGE_BUCKETS 를 넘으면 IllegalArgumentException.
+     */
+    private static int ageBucketCount(int bucketSize, int maxAge) {
+        if (bucketSize <= 0 || maxAge <= 0) {
+            throw new IllegalArgumentException("bucketSize 와 maxAge 는 0 보다 커야 합니다.");
+        }
+        long bucketCount = ((long) maxAge + bucketSize - 1) / bucketSize;
+        if (bucketCount > MAX_AGE_BUCKETS) {
+            throw new IllegalArgumentException("나이 구간은 " + MAX_AGE_BUCKETS + " 개를 넘을 수 없습니다: " + bucketCount);
+        }
+        return (int) bucketCount;
+    }
+
+    /**
+     * then 값을 파라미터가 아닌 리터럴로 렌더링해야 H2 가 CASE 의 타입을 추론할 수 있다.
+     */
+    private NumberExpression<Long> countWhen(BooleanExpression condition) {
+        return new CaseBuilder()
+                .when(condition).then(Expressions.numberTemplate(Long.class, "1"))
+                .otherwise(Expressions.numberTemplate(Long.class, "0"))
+                .sum();
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return StringUtils.hasText(username) ? member.username.eq(username) : null;
+    }
+
+    private BooleanExpression usernameStartsWith(String usernamePrefix) {
+        return StringUtils.hasText(usernamePrefix) ? member.username.startsWith(usernamePrefix) : null;
+    }
+
+    private BooleanExpression usernameContains(String usernameContains) {
+        return StringUtils.hasText(usernameContains) ? member.username.contains(usernameContains) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+}
@@ -0,0 +1,60 @@
+package spring.querydsl.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Optional;
+
+import static spring.querydsl.entity.QMember.*;
+import static spring.querydsl.entity.QTeam.*;
+
+/**
+ * team 이름을 query cache 를 통해 id 로 바꾼다.
+ * team 은 수가 적고 거의 바뀌지 않으므로, member 검색은 team join 대신 member.team.id 로 필터링할 수 있다.
+ */
+@Component
+public class TeamIdResolver {
+
+    private final JPAQueryFactory queryFactory;
+    private final boolean enabled;
+
+    public TeamIdResolver(JPAQueryFactory queryFactory,
+                          @Value("${member.search.resolve-team-id:false}") boolean enabled) {
+        this.queryFactory = queryFactory;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<Long> findTeamId(String teamName) {
+        return Optional.ofNullable(queryFactory
+                .select(team.id)
+                .from(team)
+                .where(team.name.eq(teamName))
+                .setHint(QueryHints.HINT_CACHEABLE, true)
+                .fetchFirst());
+    }
+
+    /**
+     * member 검색의 teamName 조건. 조건이 없으면 빈 BooleanBuilder 를, 사용하지 않으면 team join 을 전제로
+     * team.name 비교를, 사용하면 member.team.id 비교를 담는다.
+     * 이름에 해당하는 team 이 없으면 어떤 member 도 맞지 않으므로 비어 있는 Optional 을 돌려주고,
+     * 호출한 쪽은 쿼리를 실행하지 않고 빈 결과를 돌려준다.
+     */
+    public Optional<Predicate> teamNameEq(String teamName) {
+        if (!StringUtils.hasText(teamName)) {
+            return Optional.of(new BooleanBuilder());
+        }
+        if (!enabled) {
+            return Optional.of(team.name.eq(teamName));
+        }
+        return findTeamId(teamName).<Predicate>map(teamId -> member.team.id.eq(teamId));
+    }
+}
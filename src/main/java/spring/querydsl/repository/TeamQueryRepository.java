@@ -0,0 +1,17 @@
+package spring.querydsl.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import spring.querydsl.dto.TeamWithMembersDto;
+import spring.querydsl.entity.Team;
+
+import java.util.List;
+
+public interface TeamQueryRepository {
+
+    List<Team> findTeamsWithMembers(Pageable pageable);
+
+    Page<TeamWithMembersDto> searchTeamsWithMembers(Pageable pageable);
+
+    Page<TeamWithMembersDto> searchTeamsWithMembers(Pageable pageable, int maxMembersPerTeam);
+}
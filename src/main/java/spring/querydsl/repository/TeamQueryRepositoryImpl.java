@@ -0,0 +1,146 @@
+package spring.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.QTeamMemberDto;
+import spring.querydsl.dto.TeamMemberDto;
+import spring.querydsl.dto.TeamWithMembersDto;
+import spring.querydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.querydsl.core.group.GroupBy.*;
+import static spring.querydsl.entity.QMember.*;
+import static spring.querydsl.entity.QTeam.*;
+
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class TeamQueryRepositoryImpl implements TeamQueryRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final JPAQueryFactory queryFactory;
+
+    /**
+     * 컬렉션 fetch join 에 페이징을 걸면 메모리에서 페이징하므로,
+     * team id 를 먼저 페이징해 가져온 뒤 해당 team 들의 members 를 IN 쿼리 한 번으로 채운다.
+     */
+    @Override
+    public List<Team> findTeamsWithMembers(Pageable pageable) {
+        List<Long> teamIds = queryFactory
+                .select(team.id)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        if (teamIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return queryFactory
+                .selectFrom(team).distinct()
+                .leftJoin(team.members, member).fetchJoin()
+                .where(team.id.in(teamIds))
+                .orderBy(team.id.asc())
+                .fetch();
+    }
+
+    /**
+     * team 을 먼저 페이징하고, 그 team 들의 member 를 join 쿼리 한 번으로 읽어 GroupBy 로 team 별 목록을 만든다.
+     * 엔티티를 로딩하지 않으므로 영속성 컨텍스트와 지연 로딩을 거치지 않는다.
+     */
+    @Override
+    public Page<TeamWithMembersDto> searchTeamsWithMembers(Pageable pageable) {
+        Map<Long, TeamWithMembersDto> teams = teamPage(pageable);
+
+        if (!teams.isEmpty()) {
+            Map<Long, List<TeamMemberDto>> members = queryFactory
+                    .from(team)
+                    .join(team.members, member)
+                    .where(team.id.in(teams.keySet()))
+                    .orderBy(team.id.asc(), member.id.asc())
+                    .transform(groupBy(team.id).as(list(new QTeamMemberDto(member.id, member.username, member.age))));
+
+            members.forEach((teamId, list) -> {
+                TeamWithMembersDto dto = teams.get(teamId);
+                dto.setMembers(list);
+                dto.setMemberCount(list.size());
+            });
+        }
+
+        return PageableExecutionUtils.getPage(new ArrayList<>(teams.values()), pageable, this::countTeams);
+    }
+
+    /**
+     * team 마다 member 를 maxMembersPerTeam 명까지만 담는다. 같은 join 쿼리를 fetch size 단위로 읽으며
+     * 초과한 행은 수만 세고 버리므로, 큰 team 이 있어도 메모리는 페이지 크기 * maxMembersPerTeam 으로 제한된다.
+     */
+    @Override
+    public Page<TeamWithMembersDto> searchTeamsWithMembers(Pageable pageable, int maxMembersPerTeam) {
+        if (maxMembersPerTeam < 0) {
+            throw new IllegalArgumentException("maxMembersPerTeam 은 0 이상이어야 합니다.");
+        }
+
+        Map<Long, TeamWithMembersDto> teams = teamPage(pageable);
+
+        if (!teams.isEmpty()) {
+            try (Stream<Tuple> rows = queryFactory
+                    .select(team.id, member.id, member.username, member.age)
+                    .from(team)
+                    .join(team.members, member)
+                    .where(team.id.in(teams.keySet()))
+                    .orderBy(team.id.asc(), member.id.asc())
+                    .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                    .stream()) {
+                rows.forEach(row -> {
+                    TeamWithMembersDto dto = teams.get(row.get(team.id));
+                    dto.setMemberCount(dto.getMemberCount() + 1);
+                    if (dto.getMembers().size() < maxMembersPerTeam) {
+                        dto.getMembers().add(new TeamMemberDto(row.get(member.id), row.get(member.username), row.get(member.age)));
+                    }
+                });
+            }
+        }
+
+        return PageableExecutionUtils.getPage(new ArrayList<>(teams.values()), pageable, this::countTeams);
+    }
+
+    /**
+     * team id 순으로 한 페이지를 읽어 members 가 빈 DTO 로 만든다.
+     */
+    private Map<Long, TeamWithMembersDto> teamPage(Pageable pageable) {
+        List<Tuple> rows = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        Map<Long, TeamWithMembersDto> teams = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            teams.put(row.get(team.id), new TeamWithMembersDto(row.get(team.id), row.get(team.name)));
+        }
+        return teams;
+    }
+
+    private long countTeams() {
+        return queryFactory
+                .select(team.count())
+                .from(team)
+                .fetchOne();
+    }
+}
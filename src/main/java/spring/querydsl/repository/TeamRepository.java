@@ -3,5 +3,5 @@ package spring.querydsl.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import spring.querydsl.entity.Team;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamQueryRepository {
 }
@@ -0,0 +1,131 @@
+package spring.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static spring.querydsl.entity.QMember.*;
+
+/**
+ * username 의 3-gram 역색인. like '%x%' 는 B-tree 인덱스를 쓸 수 없으므로,
+ * 검색어의 모든 3-gram 을 가진 member id 로 후보를 줄인 뒤 DB 에서 실제 포함 여부를 다시 확인한다.
+ * 시작 시 DB 에서 채우고 이후에는 UsernameIndexListener 가 커밋된 변경을 반영한다.
+ */
+@Slf4j
+@Component
+public class UsernameTrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxCandidates;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+
+    public UsernameTrigramIndex(JPAQueryFactory queryFactory, PlatformTransactionManager transactionManager,
+                                @Value("${member.search.username-index.enabled:false}") boolean enabled,
+                                @Value("${member.search.username-index.max-candidates:1000}") int maxCandidates) {
+        this.queryFactory = queryFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Tuple> rows = queryFactory.select(member.id, member.username).from(member).stream()) {
+                rows.forEach(row -> put(row.get(member.id), row.get(member.username)));
+            }
+        });
+        log.info("username index loaded: {} members, {} grams", usernames.size(), postings.size());
+    }
+
+    public void put(Long id, String username) {
+        if (!enabled || id == null) {
+            return;
+        }
+
+        remove(id);
+        if (username == null) {
+            return;
+        }
+        usernames.put(id, username);
+        for (String gram : grams(username)) {
+            postings.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+
+        String previous = usernames.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 후보 id 를 돌려준다. 색인을 쓸 수 없거나(비활성, 검색어가 3 글자 미만) 후보가 너무 많으면 비어 있다.
+     */
+    public Optional<Set<Long>> candidates(String term) {
+        if (!enabled || term.length() < GRAM) {
+            return Optional.empty();
+        }
+
+        Set<Long> result = null;
+        for (String gram : grams(term)) {
+            Set<Long> ids = postings.getOrDefault(gram, Set.of());
+            if (result == null) {
+                result = new HashSet<>(ids);
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result.size() <= maxCandidates ? Optional.of(result) : Optional.empty();
+    }
+
+    private Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,167 @@
+package spring.querydsl.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * username,age,teamName 형식의 CSV 를 JDBC batch 로 적재한다.
+ * 첫 행이 MemberExportService 의 헤더(memberId,username,age,teamId,teamName)와 같으면 내보낸 파일을 그대로 읽는다.
+ * batch size 마다 flush/clear 해서 영속성 컨텍스트가 행 수에 비례해 커지지 않게 한다.
+ */
+@Service
+public class MemberImportService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private static final List<String> IMPORT_HEADER = List.of("username", "age", "teamName");
+    private static final List<String> EXPORT_HEADER = List.of("memberId", "username", "age", "teamId", "teamName");
+
+    /**
+     * username, age, teamName 의 열 위치
+     */
+    private static final int[] IMPORT_COLUMNS = {0, 1, 2};
+    private static final int[] EXPORT_COLUMNS = {1, 2, 4};
+
+    private final int batchSize;
+
+    public MemberImportService(@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public long importCsv(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Long> teamIds = findTeamIds();
+
+        long count = 0;
+        long recordNumber = 0;
+        int[] columnIndex = IMPORT_COLUMNS;
+        List<String> columns;
+        while ((columns = readRecord(reader)) != null) {
+            recordNumber++;
+            if (columns.size() == 1 && columns.get(0).isEmpty()) {
+                continue;
+            }
+            if (recordNumber == 1 && columns.equals(IMPORT_HEADER)) {
+                continue;
+            }
+            if (recordNumber == 1 && columns.equals(EXPORT_HEADER)) {
+                columnIndex = EXPORT_COLUMNS;
+                continue;
+            }
+
+            if (columns.size() <= columnIndex[1]) {
+                throw new IllegalArgumentException(recordNumber + "번째 행의 형식이 올바르지 않습니다: " + columns);
+            }
+
+            String username = columns.get(columnIndex[0]);
+            int age = parseAge(columns.get(columnIndex[1]), recordNumber);
+            String teamName = columns.size() > columnIndex[2] ? columns.get(columnIndex[2]) : "";
+
+            em.persist(new Member(username, age, teamName.isEmpty() ? null : findOrCreateTeam(teamIds, teamName)));
+
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        return count;
+    }
+
+    /**
+     * 한 행을 읽는다. MemberExportService 와 같이 따옴표로 감싼 값 안의 쉼표, 줄바꿈과 두 번 쓴 따옴표("")를 값으로 읽는다.
+     * 따옴표로 감싸지 않은 값만 앞뒤 공백을 지운다. 더 읽을 행이 없으면 null 을 반환한다.
+     */
+    private List<String> readRecord(BufferedReader reader) throws IOException {
+        List<String> columns = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append((char) c);
+                }
+            } else if (c == '"' && (wasQuoted || value.length() == 0)) {
+                if (wasQuoted) {
+                    value.append('"');
+                }
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                columns.add(column(value, wasQuoted));
+                value.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                value.append((char) c);
+            }
+        }
+
+        if (c < 0 && columns.isEmpty() && value.length() == 0 && !wasQuoted) {
+            return null;
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("따옴표가 닫히지 않았습니다: " + value);
+        }
+        columns.add(column(value, wasQuoted));
+        return columns;
+    }
+
+    private String column(StringBuilder value, boolean quoted) {
+        return quoted ? value.toString() : value.toString().trim();
+    }
+
+    private Map<String, Long> findTeamIds() {
+        List<Team> teams = em.createQuery("select t from Team t", Team.class).getResultList();
+        Map<String, Long> teamIds = new HashMap<>();
+        for (Team team : teams) {
+            teamIds.put(team.getName(), team.getId());
+        }
+        return teamIds;
+    }
+
+    private Team findOrCreateTeam(Map<String, Long> teamIds, String teamName) {
+        Long teamId = teamIds.get(teamName);
+        if (teamId != null) {
+            return em.getReference(Team.class, teamId);
+        }
+
+        Team team = new Team(teamName);
+        em.persist(team);
+        teamIds.put(teamName, team.getId());
+        return team;
+    }
+
+    private int parseAge(String age, long recordNumber) {
+        try {
+            return Integer.parseInt(age);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(recordNumber + "번째 행의 age 가 숫자가 아닙니다: " + age, e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package spring.querydsl.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.querydsl.dto.MemberSearchCond;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 key 의 검색이 실행 중이면 새로 실행하지 않고 그 결과를 함께 받는다(single-flight).
+ * 먼저 들어온 호출이 자기 스레드에서 쿼리를 실행하고, 뒤따른 호출은 timeout 까지 그 결과를 기다린다.
+ * key 에 결과 캐시의 generation 을 넣어 Member/Team 변경 뒤에 들어온 호출은 이전 쿼리에 합류하지 않으며,
+ * 커밋되지 않은 변경이 보일 수 있는 트랜잭션 안의 호출은 항상 직접 실행한다.
+ */
+@Component
+public class MemberSearchCoalescer {
+
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final MemberSearchResultCache resultCache;
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+    private final Counter timeoutCounter;
+
+    public MemberSearchCoalescer(MeterRegistry meterRegistry, MemberSearchResultCache resultCache,
+                                 @Value("${member.search.coalescing.enabled:false}") boolean enabled,
+                                 @Value("${member.search.coalescing.timeout:5s}") Duration timeout) {
+        this.enabled = enabled;
+        this.timeoutMillis = timeout.toMillis();
+        this.resultCache = resultCache;
+        this.executedCounter = meterRegistry.counter("member.search.coalescing", "result", "executed");
+        this.coalescedCounter = meterRegistry.counter("member.search.coalescing", "result", "coalesced");
+        this.timeoutCounter = meterRegistry.counter("member.search.coalescing", "result", "timeout");
+        meterRegistry.gaugeMapSize("member.search.coalescing.in-flight", Tags.empty(), inFlight);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(MemberSearchCond cond, Pageable pageable, Supplier<T> search) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return search.get();
+        }
+
+        List<Object> key = Arrays.asList(resultCache.generation(), MemberSearchKey.of(cond, pageable));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalescedCounter.increment();
+            return (T) await(running);
+        }
+
+        executedCounter.increment();
+        try {
+            T result = search.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> running) {
+        try {
+            return running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("검색 결과를 기다리는 중 인터럽트되었습니다.", e);
+        } catch (TimeoutException e) {
+            timeoutCounter.increment();
+            throw new QueryTimeoutException("실행 중인 같은 검색이 " + timeoutMillis + "ms 안에 끝나지 않았습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package spring.querydsl.service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.StringUtils;
+import spring.querydsl.dto.MemberSearchCond;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 같은 결과를 내는 검색 요청이 같은 key 가 되도록 빈 문자열 조건을 null 로 맞춘다.
+ */
+final class MemberSearchKey {
+
+    private MemberSearchKey() {
+    }
+
+    static List<Object> of(MemberSearchCond cond, Pageable pageable) {
+        return Arrays.asList(
+                normalize(cond.getUsername()),
+                normalize(cond.getUsernamePrefix()),
+                normalize(cond.getUsernameContains()),
+                normalize(cond.getTeamName()),
+                cond.getAgeGoe(),
+                cond.getAgeLoe(),
+                pageable != null && pageable.isPaged() ? pageable.getPageNumber() : null,
+                pageable != null && pageable.isPaged() ? pageable.getPageSize() : null,
+                pageable != null ? pageable.getSort().toString() : null);
+    }
+
+    private static String normalize(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+}
@@ -0,0 +1,120 @@
+package spring.querydsl.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.querydsl.dto.MemberSearchCond;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 검색 조건과 페이지로 정규화한 key 로 검색 결과를 ttl/최대 개수 안에서 재사용한다.
+ * Member/Team 이 바뀌면 SearchCacheInvalidationListener 가 전체를 비운다.
+ * 트랜잭션 안에서 바뀐 경우 엔티티마다 비우지 않고 트랜잭션이 끝날 때 한 번만 비우며,
+ * 그때까지 그 트랜잭션의 검색은 캐시를 건너뛰어 자기 변경을 본다.
+ */
+@Component
+public class MemberSearchResultCache {
+
+    private final boolean enabled;
+    private final boolean generationTracked;
+    private final Cache<List<Object>, Object> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberSearchResultCache(MeterRegistry meterRegistry,
+                                   @Value("${member.search.result-cache.enabled:false}") boolean enabled,
+                                   @Value("${member.search.result-cache.ttl:10s}") Duration ttl,
+                                   @Value("${member.search.result-cache.max-size:1000}") long maxSize,
+                                   @Value("${member.search.coalescing.enabled:false}") boolean coalescingEnabled) {
+        this.enabled = enabled;
+        this.generationTracked = enabled || coalescingEnabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "memberSearch");
+    }
+
+    /**
+     * 조회 중 auto flush 로 invalidate 가 다시 호출될 수 있어 Cache.get(key, mapping) 대신 직접 채우며,
+     * 조회하는 사이에 무효화되었다면 방금 넣은 값을 버린다.
+     * 쓰기 트랜잭션 안의 결과는 커밋되지 않은 변경을 볼 수 있으므로 채우지 않고,
+     * 그 트랜잭션에서 Member/Team 을 바꿨다면 캐시를 읽지도 않는다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(MemberSearchCond cond, Pageable pageable, Supplier<T> search) {
+        if (!enabled) {
+            return search.get();
+        }
+
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return search.get();
+        }
+
+        List<Object> key = MemberSearchKey.of(cond, pageable);
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return search.get();
+        }
+
+        long generationBefore = generation.get();
+        T result = search.get();
+        cache.put(key, result);
+        if (generation.get() != generationBefore) {
+            cache.invalidate(key);
+        }
+        return result;
+    }
+
+    /**
+     * Member/Team 이 바뀔 때마다(트랜잭션 안이면 끝날 때 한 번) 증가한다.
+     * 결과 캐시와 MemberSearchCoalescer 가 모두 꺼져 있으면 증가하지 않는다.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    public void invalidate() {
+        if (!generationTracked) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clear();
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberSearchResultCache.this);
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        if (enabled) {
+            cache.invalidateAll();
+        }
+    }
+}
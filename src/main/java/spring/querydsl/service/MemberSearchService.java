@@ -0,0 +1,46 @@
+package spring.querydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.repository.MemberReadModel;
+import spring.querydsl.repository.MemberRepository;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class MemberSearchService {
+
+    private final MemberRepository memberRepository;
+    private final MemberSearchResultCache resultCache;
+    private final MemberSearchCoalescer coalescer;
+    private final MemberReadModel readModel;
+
+    public List<MemberTeamDto> search(MemberSearchCond cond) {
+        if (useReadModel(cond)) {
+            return readModel.search(cond);
+        }
+        return resultCache.get(cond, null, () -> coalescer.execute(cond, null, () -> memberRepository.search(cond)));
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCond cond, Pageable pageable) {
+        if (useReadModel(cond) && pageable.getSort().isUnsorted()) {
+            return readModel.searchPage(cond, pageable);
+        }
+        return resultCache.get(cond, pageable,
+                () -> coalescer.execute(cond, pageable, () -> memberRepository.searchPage(cond, pageable)));
+    }
+
+    /**
+     * 읽기 모델은 커밋된 변경만 반영하므로, 아직 커밋하지 않은 쓰기가 있을 수 있는 트랜잭션 안에서는 DB 를 조회한다.
+     * 트랜잭션 밖에서는 커넥션을 얻지 않고 메모리에서 바로 답한다.
+     */
+    private boolean useReadModel(MemberSearchCond cond) {
+        return readModel.supports(cond) && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+}
@@ -0,0 +1,28 @@
+-- ddl-auto 없이 스키마를 만들 때 사용하는 H2 DDL (엔티티 매핑과 동일하게 유지)
+
+create sequence team_seq start with 1 increment by 50;
+create sequence member_seq start with 1 increment by 50;
+
+create table team (
+    team_id bigint not null,
+    created_date timestamp,
+    last_modified_date timestamp,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint not null,
+    created_date timestamp,
+    last_modified_date timestamp,
+    age integer not null,
+    username varchar(255),
+    team_id bigint,
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team
+);
+
+create index idx_team_name on team (name);
+create index idx_member_username_id on member (username, member_id);
+create index idx_member_age_id on member (age, member_id);
+create index idx_member_team_age on member (team_id, age);
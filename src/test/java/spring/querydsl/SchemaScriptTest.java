@@ -0,0 +1,19 @@
+package spring.querydsl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * db/schema.sql 로 만든 스키마가 엔티티 매핑과 일치하는지 hibernate validate 로 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/schema.sql"
+})
+class SchemaScriptTest {
+
+    @Test
+    void schemaMatchesEntities() {
+    }
+}
@@ -0,0 +1,23 @@
+package spring.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DataSourcePoolConfigTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    void poolSizeFromCores() {
+        assertThat(dataSource).isInstanceOf(HikariDataSource.class);
+        assertThat(((HikariDataSource) dataSource).getMaximumPoolSize()).isEqualTo(DataSourcePoolConfig.defaultPoolSize());
+    }
+}
@@ -0,0 +1,62 @@
+package spring.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.entity.Member;
+import spring.querydsl.repository.MemberRepository;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 두 개의 in-memory H2 를 primary / replica 로 두고, 복제 대신 replica 에 다른 데이터를 넣어 라우팅을 확인한다.
+ */
+@SpringBootTest(properties = {
+        "member.datasource.routing.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "member.datasource.replica.url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1",
+        "member.datasource.replica.username=sa",
+        "member.datasource.replica.hikari.maximum-pool-size=3"
+})
+class RoutingDataSourceConfigTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void routeByReadOnly() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(replicaDataSource);
+        new JdbcTemplate(replicaDataSource).update("insert into member (member_id, age, username) values (1, 10, 'replica')");
+
+        memberRepository.save(new Member("primary", 20, null));
+
+        assertThat(new JdbcTemplate(primaryDataSource).queryForList("select username from member", String.class))
+                .containsExactly("primary");
+        assertThat(memberRepository.search(new MemberSearchCond()))
+                .extracting("username")
+                .containsExactly("replica");
+    }
+
+    @Test
+    void poolSizeOnlyAppliedToPrimary() {
+        assertThat(((HikariDataSource) primaryDataSource).getMaximumPoolSize()).isEqualTo(DataSourcePoolConfig.defaultPoolSize());
+        assertThat(((HikariDataSource) replicaDataSource).getMaximumPoolSize()).isEqualTo(3);
+    }
+}
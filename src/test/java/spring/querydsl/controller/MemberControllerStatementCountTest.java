@@ -0,0 +1,159 @@
+package spring.querydsl.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static spring.querydsl.support.SqlStatementCounter.*;
+
+/**
+ * 엔드포인트 하나가 실행하는 SQL 수를 고정한다.
+ * 응답 직렬화 중의 지연 로딩도 여기서 걸린다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerStatementCountTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @BeforeEach
+    void init() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        em.flush();
+        em.clear();
+        reset();
+    }
+
+    @Test
+    void searchMemberV1() throws Exception {
+        mockMvc.perform(get("/v1/members").param("teamName", "teamB"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void searchMemberV2() throws Exception {
+        mockMvc.perform(get("/v2/members").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(4));
+        assertSelectCount(1);
+
+        reset();
+        mockMvc.perform(get("/v2/members").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(4));
+        assertSelectCount(2);
+    }
+
+    @Test
+    void searchMemberV2Compact() throws Exception {
+        mockMvc.perform(get("/v2/members").param("size", "10").accept("application/vnd.member.compact+json"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/vnd.member.compact+json"))
+                .andExpect(jsonPath("$.content.username.length()").value(4))
+                .andExpect(jsonPath("$.teams.length()").value(2));
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void searchMemberV3() throws Exception {
+        mockMvc.perform(get("/v3/members").param("size", "3").param("sort", "age"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void statistics() throws Exception {
+        mockMvc.perform(get("/v1/members/stats/teams"))
+                .andExpect(status().isOk());
+        assertSelectCount(1);
+
+        reset();
+        mockMvc.perform(get("/v1/members/stats/ages"))
+                .andExpect(status().isOk());
+        assertSelectCount(1);
+
+        reset();
+        mockMvc.perform(get("/v1/members/stats/ages").param("bucketSize", "1").param("maxAge", "1000"))
+                .andExpect(status().isBadRequest());
+        assertSelectCount(0);
+    }
+
+    @Test
+    void invalidSortOrCursor() throws Exception {
+        mockMvc.perform(get("/v2/members").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v3/members").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        assertSelectCount(0);
+    }
+
+    @Test
+    void exportMemberV1() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/members/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void importMemberV1() throws Exception {
+        // team 목록 조회 한 번, 새 team(teamC) 과 member 두 건 insert
+        mockMvc.perform(post("/v1/members/import")
+                        .contentType("text/csv")
+                        .content("member5,50,teamA\nmember6,60,teamC\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+
+        assertStatements(1, 3, 0, 0);
+    }
+
+    @Test
+    void searchTeamV1() throws Exception {
+        mockMvc.perform(get("/v1/teams"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].members.length()").value(2));
+        assertSelectCount(2);
+
+        reset();
+        mockMvc.perform(get("/v1/teams").param("maxMembers", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].members.length()").value(1))
+                .andExpect(jsonPath("$.content[0].memberCount").value(2));
+        assertSelectCount(2);
+    }
+}
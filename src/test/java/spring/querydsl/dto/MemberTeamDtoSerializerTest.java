@@ -0,0 +1,54 @@
+package spring.querydsl.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberTeamDtoSerializerTest {
+
+    ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(new MemberTeamDtoSerializer()));
+
+    @Test
+    void serialize() throws Exception {
+        MemberTeamDto withTeam = new MemberTeamDto(1L, "member\"1", 10, 2L, "teamA");
+        MemberTeamDto withoutTeam = new MemberTeamDto(3L, "member3", 30, null, null);
+
+        assertThat(objectMapper.writeValueAsString(withTeam))
+                .isEqualTo("{\"memberId\":1,\"username\":\"member\\\"1\",\"age\":10,\"teamId\":2,\"teamName\":\"teamA\"}");
+        assertThat(objectMapper.writeValueAsString(withoutTeam))
+                .isEqualTo("{\"memberId\":3,\"username\":\"member3\",\"age\":30,\"teamId\":null,\"teamName\":null}");
+    }
+
+    @Test
+    void pageResponse() throws Exception {
+        PageImpl<MemberTeamDto> page = new PageImpl<>(
+                List.of(new MemberTeamDto(1L, "member1", 10, 2L, "teamA")), PageRequest.of(1, 1), 3);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(PageResponse.of(page)));
+
+        assertThat(json.get("content").toString())
+                .isEqualTo("[{\"memberId\":1,\"username\":\"member1\",\"age\":10,\"teamId\":2,\"teamName\":\"teamA\"}]");
+        // PageImpl 을 그대로 직렬화할 때의 필드를 모두 유지한다.
+        JsonNode pageImpl = objectMapper.readTree(objectMapper.writeValueAsString(page));
+        assertThat(fieldNames(json)).containsExactlyInAnyOrderElementsOf(fieldNames(pageImpl));
+        for (String field : List.of("pageable", "last", "totalPages", "totalElements", "size", "number", "sort",
+                "first", "numberOfElements", "empty")) {
+            assertThat(json.get(field)).as(field).isEqualTo(pageImpl.get(field));
+        }
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> result = new ArrayList<>();
+        node.fieldNames().forEachRemaining(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package spring.querydsl.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.repository.MemberJpaRepository;
+import spring.querydsl.repository.MemberRepository;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class QueryMetricsAspectTest {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Test
+    void recordTimerAndRows() {
+        memberJpaRepository.save(new Member("member1", 10, null));
+        memberJpaRepository.save(new Member("member2", 20, null));
+
+        memberRepository.search(new MemberSearchCond());
+        memberJpaRepository.searchByWhere(new MemberSearchCond());
+
+        Timer timer = meterRegistry.find("member.repository.query")
+                .tags("repository", "MemberQueryRepositoryImpl", "method", "search")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+
+        assertThat(meterRegistry.find("member.repository.rows")
+                .tags("repository", "MemberJpaRepository", "method", "searchByWhere")
+                .summary()
+                .max()).isEqualTo(2);
+    }
+
+    @Test
+    void recordFailedCall() {
+        assertThatThrownBy(() -> memberRepository.searchPage(new MemberSearchCond(), PageRequest.of(0, 10, Sort.by("createdDate"))))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+
+        Timer timer = meterRegistry.find("member.repository.query")
+                .tags("repository", "MemberQueryRepositoryImpl", "method", "searchPage",
+                        "outcome", "ERROR", "exception", "IllegalArgumentException")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void recordStreamOnClose() {
+        memberJpaRepository.save(new Member("member1", 10, null));
+        memberJpaRepository.save(new Member("member2", 20, null));
+
+        Timer timer = meterRegistry.timer("member.repository.query",
+                "repository", "MemberJpaRepository", "method", "streamByWhere", "outcome", "SUCCESS", "exception", "none");
+        long before = timer.count();
+
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.streamByWhere(new MemberSearchCond())) {
+            assertThat(timer.count()).isEqualTo(before);
+            assertThat(stream.count()).isEqualTo(2);
+        }
+
+        assertThat(timer.count()).isEqualTo(before + 1);
+        assertThat(meterRegistry.find("member.repository.rows")
+                .tags("repository", "MemberJpaRepository", "method", "streamByWhere")
+                .summary()
+                .max()).isEqualTo(2);
+    }
+}
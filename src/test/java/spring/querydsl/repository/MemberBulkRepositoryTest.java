@@ -0,0 +1,131 @@
+package spring.querydsl.repository;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "member.bulk.chunk-size=3")
+@Transactional
+class MemberBulkRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberBulkRepository memberBulkRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    Team teamA;
+    Team teamB;
+
+    @BeforeEach
+    void init() {
+        teamA = new Team("teamA");
+        teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i * 10, i % 2 == 0 ? teamA : teamB));
+        }
+    }
+
+    @Test
+    void addAge() {
+        Member member0 = memberJpaRepository.findByUsername("member0").get(0);
+        Member member1 = memberJpaRepository.findByUsername("member1").get(0);
+        assertThat(member0.getAge()).isEqualTo(0);
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+        long count = memberBulkRepository.addAge(cond, 1);
+
+        assertThat(count).isEqualTo(5);
+        // 바뀐 member 만 영속성 컨텍스트에서 떼어 내 DB 값을 다시 읽고, 나머지 엔티티는 그대로 둔다
+        assertThat(em.contains(member0)).isFalse();
+        assertThat(em.contains(member1)).isTrue();
+        assertThat(memberJpaRepository.findByUsername("member0").get(0).getAge()).isEqualTo(1);
+        assertThat(memberJpaRepository.findByUsername("member1").get(0).getAge()).isEqualTo(10);
+    }
+
+    @Test
+    void detachCreatesNoProxies() {
+        em.flush();
+        em.clear();
+        Member member0 = memberJpaRepository.findByUsername("member0").get(0);
+        Long member2Id = memberJpaRepository.findByUsername("member2").get(0).getId();
+        em.detach(em.find(Member.class, member2Id));
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+        memberBulkRepository.addAge(cond, 1);
+
+        // 관리 중이던 member0 만 떼어 내고, 관리 중이 아니던 member2 의 프록시는 만들지 않는다
+        assertThat(em.contains(member0)).isFalse();
+        Member member2 = em.find(Member.class, member2Id);
+        assertThat(member2).isNotInstanceOf(HibernateProxy.class);
+        assertThat(member2.getAge()).isEqualTo(21);
+    }
+
+    @Test
+    void changeTeam() {
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setAgeGoe(50);
+        long count = memberBulkRepository.changeTeam(cond, teamB.getId());
+
+        assertThat(count).isEqualTo(5);
+        List<Member> members = memberJpaRepository.searchMember(teamNameCond("teamB"));
+        assertThat(members).hasSize(7);
+    }
+
+    @Test
+    void delete() {
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamB");
+        cond.setAgeLoe(50);
+        long count = memberBulkRepository.delete(cond);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(memberJpaRepository.findAll()).hasSize(7);
+    }
+
+    @Test
+    void chunksFollowIdOrderAcrossGaps() {
+        // 중간 id 를 지워 id 범위와 청크가 어긋나게 한다
+        MemberSearchCond gap = new MemberSearchCond();
+        gap.setUsernamePrefix("member");
+        gap.setAgeGoe(20);
+        gap.setAgeLoe(60);
+        assertThat(memberBulkRepository.delete(gap)).isEqualTo(5);
+
+        assertThat(memberBulkRepository.addAge(new MemberSearchCond(), 100)).isEqualTo(5);
+        assertThat(memberJpaRepository.findAll()).extracting("age").containsExactlyInAnyOrder(100, 110, 170, 180, 190);
+    }
+
+    @Test
+    void nothingMatched() {
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setUsername("none");
+
+        assertThat(memberBulkRepository.delete(cond)).isZero();
+    }
+
+    private MemberSearchCond teamNameCond(String teamName) {
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName(teamName);
+        return cond;
+    }
+}
@@ -0,0 +1,41 @@
+package spring.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+import spring.querydsl.dto.MemberSearchCond;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountCacheTest {
+
+    @Test
+    void disabledByDefault() {
+        MemberCountCache countCache = new MemberCountCache(Duration.ZERO);
+        AtomicInteger executed = new AtomicInteger();
+
+        countCache.get(new MemberSearchCond(), () -> executed.incrementAndGet());
+        countCache.get(new MemberSearchCond(), () -> executed.incrementAndGet());
+
+        assertThat(executed.get()).isEqualTo(2);
+    }
+
+    @Test
+    void reuseCountPerCondition() {
+        MemberCountCache countCache = new MemberCountCache(Duration.ofMinutes(1));
+        AtomicInteger executed = new AtomicInteger();
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+        MemberSearchCond sameCond = new MemberSearchCond();
+        sameCond.setTeamName("teamA");
+        MemberSearchCond otherCond = new MemberSearchCond();
+        otherCond.setTeamName("teamB");
+
+        assertThat(countCache.get(cond, () -> 10 + executed.incrementAndGet())).isEqualTo(11);
+        assertThat(countCache.get(sameCond, () -> 10 + executed.incrementAndGet())).isEqualTo(11);
+        assertThat(countCache.get(otherCond, () -> 10 + executed.incrementAndGet())).isEqualTo(12);
+        assertThat(executed.get()).isEqualTo(2);
+    }
+}
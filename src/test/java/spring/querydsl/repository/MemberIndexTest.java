@@ -0,0 +1,183 @@
+package spring.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static spring.querydsl.support.SqlStatementCounter.*;
+
+/**
+ * 저장소가 실제로 실행한 SQL 을 SqlStatementCounter 로 가져와 EXPLAIN 한다.
+ * teamName 조건은 기본(team inner join 후 team.name)과 TeamIdResolver(member.team_id) 두 경로 모두 검사한다.
+ */
+@SpringBootTest
+@Transactional
+class MemberIndexTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    MemberCountCache countCache;
+
+    @Autowired
+    MemberCountExecutor countExecutor;
+
+    @Autowired
+    UsernameTrigramIndex usernameIndex;
+
+    Long teamId;
+
+    @BeforeEach
+    void init() {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            teams.add(team);
+        }
+        for (int i = 0; i < 1000; i++) {
+            em.persist(new Member("member" + i, i % 100 + 1, teams.get(i % 10)));
+        }
+        em.flush();
+        em.clear();
+        teamId = teams.get(0).getId();
+    }
+
+    /**
+     * MemberSearchCond 의 15 가지 조건 조합 모두 member 테이블을 전체 스캔하지 않는지 확인한다.
+     */
+    @Test
+    void everyConditionUsesIndexWithTeamId() {
+        MemberQueryRepositoryImpl repository = repository(true);
+
+        for (int shape = 1; shape < 16; shape++) {
+            List<Object> params = new ArrayList<>();
+            MemberSearchCond cond = cond(shape, params, teamId);
+
+            reset();
+            repository.search(cond);
+            String plan = explainCaptured(params);
+
+            assertThat(plan).as(plan).doesNotContainIgnoringCase("MEMBER.tableScan");
+        }
+    }
+
+    /**
+     * teamName 이 있으면 team 을 inner join 하므로 H2 가 idx_team_name 으로 team 을 먼저 찾고
+     * idx_member_team_age 로 member 에 들어갈 수 있다. teamName 만 있어도 member 를 전체 스캔하지 않는다.
+     */
+    @Test
+    void everyConditionWithTeamNameJoin() {
+        MemberQueryRepositoryImpl repository = repository(false);
+
+        for (int shape = 1; shape < 16; shape++) {
+            List<Object> params = new ArrayList<>();
+            MemberSearchCond cond = cond(shape, params, "team0");
+
+            reset();
+            repository.search(cond);
+            String plan = explainCaptured(params);
+
+            assertThat(plan).as(plan).doesNotContainIgnoringCase("MEMBER.tableScan");
+        }
+    }
+
+    /**
+     * searchPage 의 정렬(마지막에 member_id 를 붙인 ORDER BY)이 인덱스 순서로 읽혀 별도 정렬을 하지 않는지 확인한다.
+     * team 이름 정렬은 member 가 left join 의 기준 테이블이라 인덱스로 대신할 수 없다.
+     */
+    @Test
+    void sortedPageUsesIndexOrder() {
+        MemberQueryRepositoryImpl repository = repository(false);
+        MemberSearchCond ageGoe = new MemberSearchCond();
+        ageGoe.setAgeGoe(90);
+
+        assertSortedByIndex(repository, new MemberSearchCond(), Sort.by("id"));
+        assertSortedByIndex(repository, new MemberSearchCond(), Sort.by("username"));
+        assertSortedByIndex(repository, new MemberSearchCond(), Sort.by("age"));
+        assertSortedByIndex(repository, ageGoe, Sort.by("age"), 90);
+    }
+
+    @Test
+    void teamNameUsesIndex() {
+        String plan = explain("select t.team_id from team t where t.name = 'team1'");
+        assertThat(plan).containsIgnoringCase("IDX_TEAM_NAME");
+    }
+
+    private void assertSortedByIndex(MemberQueryRepositoryImpl repository, MemberSearchCond cond, Sort sort, Object... params) {
+        reset();
+        repository.searchPage(cond, PageRequest.of(0, 20, sort));
+
+        List<Object> bound = new ArrayList<>(List.of(params));
+        bound.add(20);
+        String plan = explainCaptured(bound);
+        assertThat(plan).as(plan).containsIgnoringCase("index sorted");
+    }
+
+    private MemberQueryRepositoryImpl repository(boolean resolveTeamId) {
+        return new MemberQueryRepositoryImpl(queryFactory, countCache, new TeamIdResolver(queryFactory, resolveTeamId),
+                countExecutor, usernameIndex);
+    }
+
+    /**
+     * shape 의 비트마다 조건을 켜고, 바인딩될 값을 where 절 순서대로 params 에 담는다.
+     */
+    private MemberSearchCond cond(int shape, List<Object> params, Object team) {
+        MemberSearchCond cond = new MemberSearchCond();
+        if ((shape & 1) != 0) {
+            cond.setUsername("member10");
+            params.add("member10");
+        }
+        if ((shape & 2) != 0) {
+            cond.setTeamName("team0");
+            params.add(team);
+        }
+        if ((shape & 4) != 0) {
+            cond.setAgeGoe(90);
+            params.add(90);
+        }
+        if ((shape & 8) != 0) {
+            cond.setAgeLoe(95);
+            params.add(95);
+        }
+        return cond;
+    }
+
+    /**
+     * 마지막으로 실행된 member content 조회(count 제외)를 같은 파라미터로 EXPLAIN 한다.
+     */
+    private String explainCaptured(List<Object> params) {
+        String sql = statements().stream()
+                .filter(statement -> statement.contains("from member ") && !statement.contains("count("))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("member 조회가 실행되지 않았습니다: " + statements()));
+
+        Query query = em.createNativeQuery("explain " + sql);
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
+        }
+        return String.valueOf(query.getSingleResult());
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(em.createNativeQuery("explain " + sql).getSingleResult());
+    }
+}
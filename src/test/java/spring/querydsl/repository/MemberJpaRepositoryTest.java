@@ -1,5 +1,6 @@
 package spring.querydsl.repository;
 
+import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import javax.persistence.EntityManager;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
+import static spring.querydsl.support.SqlStatementCounter.*;
 
 @SpringBootTest
 @Transactional
@@ -25,6 +27,12 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    TeamIdResolver teamIdResolver;
+
     @Test
     void basicTest() {
         Member member = new Member("member1", 10, null);
@@ -82,4 +90,41 @@ class MemberJpaRepositoryTest {
         result.stream().forEach(m -> System.out.println(m));
         assertThat(result).extracting("username").containsExactly("member4");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchByBuilderUsernameConditions() {
+        memberJpaRepository.save(new Member("member1", 10, null));
+        memberJpaRepository.save(new Member("member12", 20, null));
+        memberJpaRepository.save(new Member("user12", 30, null));
+
+        MemberSearchCond prefix = new MemberSearchCond();
+        prefix.setUsernamePrefix("member1");
+        assertThat(memberJpaRepository.searchByBuilder(prefix)).extracting("username").containsExactlyInAnyOrder("member1", "member12");
+
+        MemberSearchCond contains = new MemberSearchCond();
+        contains.setUsernameContains("r12");
+        assertThat(memberJpaRepository.searchByBuilder(contains)).extracting("username").containsExactlyInAnyOrder("member12", "user12");
+    }
+
+    /**
+     * 3-gram 색인에 후보가 하나도 없으면 쿼리를 실행하지 않는다.
+     */
+    @Test
+    void noTrigramCandidatesSkipsQuery() {
+        memberJpaRepository.save(new Member("member1", 10, null));
+        em.flush();
+
+        UsernameTrigramIndex usernameIndex = new UsernameTrigramIndex(null, null, true, 1000);
+        usernameIndex.put(1L, "member1");
+        MemberJpaRepository repository = new MemberJpaRepository(em, queryFactory, teamIdResolver, usernameIndex);
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setUsernameContains("zzz");
+
+        reset();
+        assertThat(repository.searchByWhere(cond)).isEmpty();
+        assertThat(repository.searchByBuilder(cond)).isEmpty();
+        assertThat(repository.streamByWhere(cond)).isEmpty();
+        assertSelectCount(0);
+    }
+}
@@ -0,0 +1,69 @@
+package spring.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static spring.querydsl.support.SqlStatementCounter.*;
+
+/**
+ * count 쿼리는 별도 트랜잭션에서 실행되므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ */
+@SpringBootTest(properties = "member.search.parallel-count.enabled=true")
+class MemberParallelCountTest {
+
+    /**
+     * MemberCountExecutor 작업 스레드 이름의 접두사
+     */
+    static final String COUNT_THREAD = "member-count-";
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void searchPageWithParallelCount() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("member" + i, i * 10, teamA));
+        }
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+        cond.setAgeGoe(20);
+
+        reset();
+        Page<MemberTeamDto> first = memberRepository.searchPage(cond, PageRequest.of(0, 3));
+        assertThat(first.getContent()).hasSize(3);
+        assertThat(first.getTotalElements()).isEqualTo(8);
+        // 첫 페이지의 count 는 호출한 스레드에서 순차로 실행한다
+        assertThat(statementsOnThread(COUNT_THREAD)).isEmpty();
+
+        reset();
+        Page<MemberTeamDto> middle = memberRepository.searchPage(cond, PageRequest.of(1, 3));
+        assertThat(middle.getContent()).hasSize(3);
+        assertThat(middle.getTotalElements()).isEqualTo(8);
+        assertThat(statementsOnThread(COUNT_THREAD)).hasSize(1).allMatch(sql -> sql.contains("count("));
+        assertThat(statementsOnThread(Thread.currentThread().getName())).noneMatch(sql -> sql.contains("count("));
+
+        Page<MemberTeamDto> last = memberRepository.searchPage(cond, PageRequest.of(2, 3));
+        assertThat(last.getContent()).hasSize(2);
+        assertThat(last.getTotalElements()).isEqualTo(8);
+    }
+}
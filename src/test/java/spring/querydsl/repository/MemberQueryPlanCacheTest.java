@@ -0,0 +1,102 @@
+package spring.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 조건 조합(shape)마다 Querydsl 이 같은 JPQL 을 만들어 Hibernate 쿼리 계획 캐시를 재사용하는지 확인한다.
+ */
+@SpringBootTest
+@Transactional
+class MemberQueryPlanCacheTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @BeforeEach
+    void init() {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            teams.add(team);
+        }
+        for (int i = 0; i < 30; i++) {
+            em.persist(new Member("member" + i, i * 3, i % 4 == 3 ? null : teams.get(i % 3)));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void sameResultAsBuilderForEveryShape() {
+        for (int shape = 0; shape < 16; shape++) {
+            MemberSearchCond cond = cond(shape);
+            assertThat(memberRepository.search(cond)).as("shape %d", shape)
+                    .extracting(MemberTeamDto::getUsername)
+                    .containsExactlyInAnyOrderElementsOf(usernames(memberJpaRepository.searchByBuilder(cond)));
+        }
+    }
+
+    @Test
+    void repeatedShapesReuseQueryPlan() {
+        for (int shape = 0; shape < 16; shape++) {
+            memberRepository.search(cond(shape));
+        }
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int shape = 0; shape < 16; shape++) {
+            memberRepository.search(cond(shape));
+        }
+
+        assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+        assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThanOrEqualTo(16);
+    }
+
+    private MemberSearchCond cond(int shape) {
+        MemberSearchCond cond = new MemberSearchCond();
+        if ((shape & 1) != 0) {
+            cond.setUsername("member4");
+        }
+        if ((shape & 2) != 0) {
+            cond.setTeamName("team1");
+        }
+        if ((shape & 4) != 0) {
+            cond.setAgeGoe(10);
+        }
+        if ((shape & 8) != 0) {
+            cond.setAgeLoe(60);
+        }
+        return cond;
+    }
+
+    private List<String> usernames(List<MemberTeamDto> result) {
+        List<String> usernames = new ArrayList<>();
+        for (MemberTeamDto dto : result) {
+            usernames.add(dto.getUsername());
+        }
+        return usernames;
+    }
+}
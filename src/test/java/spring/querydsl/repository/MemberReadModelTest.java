@@ -0,0 +1,141 @@
+package spring.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+import spring.querydsl.service.MemberSearchService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static spring.querydsl.support.SqlStatementCounter.*;
+
+/**
+ * 읽기 모델은 커밋된 변경만 반영하므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ */
+@SpringBootTest(properties = "member.search.read-model.enabled=true")
+class MemberReadModelTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberBulkRepository memberBulkRepository;
+
+    @Autowired
+    MemberReadModel readModel;
+
+    @Autowired
+    MemberSearchService memberSearchService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void init() {
+        readModel.load();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void sameResultAsQuerydsl() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            members.add(new Member("member" + i, i, i % 3 == 0 ? null : i % 3 == 1 ? teamA : teamB));
+        }
+        memberRepository.saveAll(members);
+
+        List<MemberSearchCond> conds = List.of(
+                cond(null, null, null, null),
+                cond("member10", null, null, null),
+                cond("none", null, null, null),
+                cond(null, "teamB", null, null),
+                cond(null, "none", null, null),
+                cond(null, null, 10, 15),
+                cond(null, null, 50, null),
+                cond(null, "teamA", 20, 80),
+                cond("member40", "teamA", 40, 40),
+                cond(null, null, 30, 20));
+        for (MemberSearchCond cond : conds) {
+            assertThat(readModel.supports(cond)).isTrue();
+            assertThat(readModel.search(cond)).containsExactlyInAnyOrderElementsOf(memberRepository.search(cond));
+        }
+
+        Page<MemberTeamDto> page = readModel.searchPage(cond(null, "teamA", null, null), PageRequest.of(1, 10));
+        assertThat(page.getTotalElements()).isEqualTo(33);
+        assertThat(page.getContent()).extracting("username").startsWith("member31").hasSize(10);
+    }
+
+    @Test
+    void reflectCommittedChanges() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Member member1 = memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("rolledBack", 30, teamA));
+            memberRepository.flush();
+            status.setRollbackOnly();
+        });
+        assertThat(readModel.search(cond(null, "teamA", null, null))).extracting("username")
+                .containsExactly("member1", "member2");
+
+        memberRepository.delete(member1);
+        assertThat(readModel.search(cond(null, "teamA", null, null))).extracting("username")
+                .containsExactly("member2");
+
+        // 벌크 쿼리는 리스너를 거치지 않으므로 끝난 뒤 DB 에서 다시 적재한다
+        memberBulkRepository.addAge(cond(null, "teamA", null, null), 5);
+        assertThat(readModel.search(cond(null, null, 25, 25))).extracting("username")
+                .containsExactly("member2");
+    }
+
+    @Test
+    void serviceAnswersWithoutQuery() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+
+        reset();
+        assertThat(memberSearchService.search(cond(null, "teamA", null, null))).hasSize(1);
+        assertThat(memberSearchService.searchPage(cond(null, null, 10, null), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertSelectCount(0);
+
+        // prefix 검색은 DB 로 넘긴다
+        MemberSearchCond prefix = new MemberSearchCond();
+        prefix.setUsernamePrefix("member");
+        assertThat(readModel.supports(prefix)).isFalse();
+        assertThat(memberSearchService.search(prefix)).hasSize(1);
+        assertSelectCount(1);
+    }
+
+    private MemberSearchCond cond(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setUsername(username);
+        cond.setTeamName(teamName);
+        cond.setAgeGoe(ageGoe);
+        cond.setAgeLoe(ageLoe);
+        return cond;
+    }
+}
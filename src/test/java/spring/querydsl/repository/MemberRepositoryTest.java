@@ -1,12 +1,22 @@
 package spring.querydsl.repository;
 
+import com.querydsl.core.BooleanBuilder;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberSlice;
 import spring.querydsl.dto.MemberTeamDto;
 import spring.querydsl.entity.Member;
+import spring.querydsl.entity.QTeam;
 import spring.querydsl.entity.Team;
 
 import javax.persistence.EntityManager;
@@ -14,6 +24,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -25,6 +36,9 @@ class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    MemberQueryRepositoryImpl memberQueryRepository;
+
     @Test
     void basicTest() {
         Member member = new Member("member1", 10, null);
@@ -62,4 +76,137 @@ class MemberRepositoryTest {
         result.stream().forEach(m -> System.out.println(m));
         assertThat(result).extracting("username").containsExactly("member4");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchPageTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+        memberRepository.save(new Member("member3", 30, teamB));
+        memberRepository.save(new Member("member4", 40, teamB));
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setAgeGoe(15);
+
+        Page<MemberTeamDto> result = memberRepository.searchPage(cond, PageRequest.of(1, 2));
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent()).hasSize(1);
+    }
+
+    @Test
+    void searchPageSortTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        memberRepository.save(new Member("member1", 20, teamA));
+        memberRepository.save(new Member("member2", 20, teamB));
+        memberRepository.save(new Member("member3", 10, teamB));
+        memberRepository.save(new Member("member4", 30, teamA));
+
+        MemberSearchCond cond = new MemberSearchCond();
+
+        Page<MemberTeamDto> byAge = memberRepository.searchPage(cond, PageRequest.of(0, 3, Sort.by("age")));
+        assertThat(byAge.getContent()).extracting("username").containsExactly("member3", "member1", "member2");
+        assertThat(byAge.getTotalElements()).isEqualTo(4);
+
+        Page<MemberTeamDto> byTeamAndAge = memberRepository.searchPage(cond,
+                PageRequest.of(0, 4, Sort.by(Sort.Order.desc("teamName"), Sort.Order.asc("age"))));
+        assertThat(byTeamAndAge.getContent()).extracting("username").containsExactly("member3", "member2", "member1", "member4");
+
+        Page<MemberTeamDto> byUsernameDesc = memberRepository.searchPage(cond, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "username")));
+        assertThat(byUsernameDesc.getContent()).extracting("username").containsExactly("member2", "member1");
+
+        assertThatThrownBy(() -> memberRepository.searchPage(cond, PageRequest.of(0, 2, Sort.by("createdDate"))))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * content 와 count 모두 DTO/count 프로젝션이므로 깊은 페이지를 조회해도 Member 엔티티를 로딩하지 않는다.
+     */
+    @Test
+    void deepPageLoadsNoEntities() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 30; i++) {
+            em.persist(new Member("member" + i, i, teamA));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+        Page<MemberTeamDto> result = memberRepository.searchPage(cond, PageRequest.of(5, 5));
+
+        assertThat(result.getContent()).hasSize(5);
+        assertThat(result.getTotalElements()).isEqualTo(30);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void countQueryTest() {
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setAgeGoe(15);
+
+        String jpql = memberQueryRepository.countQuery(cond, new BooleanBuilder()).toString();
+        assertThat(jpql).startsWith("select count(");
+        assertThat(jpql).doesNotContain("join");
+
+        cond.setTeamName("teamA");
+        assertThat(memberQueryRepository.countQuery(cond, QTeam.team.name.eq("teamA")).toString()).contains("join");
+    }
+
+    @Test
+    void searchSliceTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        memberRepository.save(new Member("member1", 30, teamA));
+        memberRepository.save(new Member("member2", 10, teamA));
+        memberRepository.save(new Member("member3", 30, teamA));
+        memberRepository.save(new Member("member4", 20, teamA));
+
+        MemberSearchCond cond = new MemberSearchCond();
+
+        MemberSlice first = memberRepository.searchSlice(cond, null, 3, false);
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(first.isHasNext()).isTrue();
+
+        MemberSlice second = memberRepository.searchSlice(cond, first.getNextCursor(), 3, false);
+        assertThat(second.getContent()).extracting("username").containsExactly("member4");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        MemberSlice byAge = memberRepository.searchSlice(cond, null, 2, true);
+        assertThat(byAge.getContent()).extracting("username").containsExactly("member2", "member4");
+
+        MemberSlice byAgeNext = memberRepository.searchSlice(cond, byAge.getNextCursor(), 2, true);
+        assertThat(byAgeNext.getContent()).extracting("username").containsExactly("member1", "member3");
+    }
+
+    @Test
+    void searchByUsernamePrefixAndContains() {
+        memberRepository.save(new Member("member1", 10, null));
+        memberRepository.save(new Member("member12", 20, null));
+        memberRepository.save(new Member("user12", 30, null));
+
+        MemberSearchCond prefix = new MemberSearchCond();
+        prefix.setUsernamePrefix("member1");
+        assertThat(memberRepository.search(prefix)).extracting("username").containsExactlyInAnyOrder("member1", "member12");
+
+        MemberSearchCond contains = new MemberSearchCond();
+        contains.setUsernameContains("r12");
+        assertThat(memberRepository.search(contains)).extracting("username").containsExactlyInAnyOrder("member12", "user12");
+        assertThat(memberRepository.searchPage(contains, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,201 @@
+package spring.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static spring.querydsl.support.SqlStatementCounter.*;
+
+/**
+ * 리포지토리 메서드마다 실행되는 SQL 수를 고정한다.
+ * 지연 로딩이나 불필요한 count, flush 로 SQL 이 늘어나면 실패하므로,
+ * 의도적으로 줄였을 때만 기대값을 낮춘다.
+ */
+@SpringBootTest
+@Transactional
+class MemberStatementCountTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberStatisticsRepository memberStatisticsRepository;
+
+    @Autowired
+    MemberBulkRepository memberBulkRepository;
+
+    Long member1Id;
+
+    @BeforeEach
+    void init() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        member1Id = member1.getId();
+
+        em.flush();
+        em.clear();
+        // 2차 캐시에 남은 Team 이 지연 로딩 횟수를 바꾸지 않도록 비운다
+        em.getEntityManagerFactory().getCache().evictAll();
+        reset();
+    }
+
+    @Test
+    void save() {
+        memberJpaRepository.save(new Member("member5", 50, null));
+        em.flush();
+
+        assertStatements(0, 1, 0, 0);
+    }
+
+    @Test
+    void findById() {
+        assertThat(memberJpaRepository.findById(member1Id)).isPresent();
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void findAllWithTeams() {
+        List<Member> result = memberJpaRepository.findAll();
+        assertSelectCount(1);
+
+        // team 은 default_batch_fetch_size 로 IN 쿼리 한 번에 로딩된다
+        result.forEach(m -> m.getTeam().getName());
+        assertSelectCount(2);
+    }
+
+    @Test
+    void findByUsername() {
+        assertThat(memberJpaRepository.findByUsername("member1")).hasSize(1);
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void searchByBuilder() {
+        assertThat(memberJpaRepository.searchByBuilder(teamB())).hasSize(2);
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void searchByWhere() {
+        assertThat(memberJpaRepository.searchByWhere(teamB())).hasSize(2);
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void streamByWhere() {
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.streamByWhere(new MemberSearchCond())) {
+            assertThat(stream.count()).isEqualTo(4);
+        }
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void searchMember() {
+        assertThat(memberJpaRepository.searchMember(teamB())).hasSize(2);
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void search() {
+        assertThat(memberRepository.search(teamB())).hasSize(2);
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void searchPage() {
+        // 첫 페이지에 전체가 들어오면 count 쿼리를 생략한다
+        Page<MemberTeamDto> all = memberRepository.searchPage(new MemberSearchCond(), PageRequest.of(0, 10));
+        assertThat(all.getTotalElements()).isEqualTo(4);
+        assertSelectCount(1);
+
+        reset();
+        Page<MemberTeamDto> first = memberRepository.searchPage(new MemberSearchCond(), PageRequest.of(0, 3));
+        assertThat(first.getTotalElements()).isEqualTo(4);
+        assertSelectCount(2);
+
+        // 마지막 페이지는 offset + content 크기로 전체 수를 계산한다
+        reset();
+        Page<MemberTeamDto> last = memberRepository.searchPage(new MemberSearchCond(), PageRequest.of(1, 3));
+        assertThat(last.getTotalElements()).isEqualTo(4);
+        assertSelectCount(1);
+    }
+
+    @Test
+    void searchSlice() {
+        assertThat(memberRepository.searchSlice(new MemberSearchCond(), null, 3, true).isHasNext()).isTrue();
+
+        assertSelectCount(1);
+    }
+
+    @Test
+    void findTeamsWithMembers() {
+        List<Team> teams = teamRepository.findTeamsWithMembers(PageRequest.of(0, 10));
+        teams.forEach(t -> t.getMembers().size());
+
+        assertSelectCount(2);
+    }
+
+    @Test
+    void statistics() {
+        assertThat(memberStatisticsRepository.teamStatistics(new MemberSearchCond())).hasSize(2);
+        assertSelectCount(1);
+
+        reset();
+        assertThat(memberStatisticsRepository.ageHistogram(new MemberSearchCond(), 10, 100)).isNotEmpty();
+        assertSelectCount(1);
+    }
+
+    @Test
+    void bulk() {
+        // 조건에 맞는 id 를 chunk-size(기본 1000)개까지 고르는 조회 한 번 + 그 id 들로 실행하는 벌크 쿼리 한 번
+        assertThat(memberBulkRepository.addAge(teamB(), 1)).isEqualTo(2);
+        assertStatements(1, 0, 1, 0);
+
+        reset();
+        assertThat(memberBulkRepository.delete(teamB())).isEqualTo(2);
+        assertStatements(1, 0, 0, 1);
+    }
+
+    private MemberSearchCond teamB() {
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamB");
+        return cond;
+    }
+}
@@ -0,0 +1,86 @@
+package spring.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.AgeBucketDto;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.TeamStatisticsDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+@Transactional
+class MemberStatisticsRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberStatisticsRepository memberStatisticsRepository;
+
+    @BeforeEach
+    void init() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 45, teamB));
+        em.persist(new Member("member5", 70, teamB));
+    }
+
+    @Test
+    void teamStatistics() {
+        List<TeamStatisticsDto> result = memberStatisticsRepository.teamStatistics(new MemberSearchCond());
+
+        assertThat(result).extracting("teamName").containsExactly("teamA", "teamB");
+        TeamStatisticsDto teamB = result.get(1);
+        assertThat(teamB.getMemberCount()).isEqualTo(3);
+        assertThat(teamB.getAvgAge()).isEqualTo(48.33, within(0.01));
+        assertThat(teamB.getMinAge()).isEqualTo(30);
+        assertThat(teamB.getMaxAge()).isEqualTo(70);
+    }
+
+    @Test
+    void ageHistogram() {
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamB");
+
+        List<AgeBucketDto> result = memberStatisticsRepository.ageHistogram(cond, 20, 60);
+
+        assertThat(result).extracting("fromAge").containsExactly(0, 20, 40, 60);
+        assertThat(result).extracting("count").containsExactly(0L, 1L, 1L, 1L);
+        assertThat(result.get(3).getToAge()).isNull();
+    }
+
+    @Test
+    void ageHistogramRejectsTooManyBuckets() {
+        MemberSearchCond cond = new MemberSearchCond();
+
+        assertThatThrownBy(() -> memberStatisticsRepository.ageHistogram(cond, 1, Integer.MAX_VALUE))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberStatisticsRepository.ageHistogram(cond, Integer.MAX_VALUE, 0))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+        // 구간 크기가 maxAge 근처여도 from + bucketSize 가 넘치지 않는다.
+        List<AgeBucketDto> result = memberStatisticsRepository.ageHistogram(cond, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertThat(result).extracting("fromAge").containsExactly(0, Integer.MAX_VALUE);
+        assertThat(result.get(0).getCount()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,98 @@
+package spring.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.dto.TeamStatisticsDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static spring.querydsl.support.SqlStatementCounter.*;
+
+@SpringBootTest(properties = "member.search.resolve-team-id=true")
+class TeamIdResolverTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberStatisticsRepository memberStatisticsRepository;
+
+    @Autowired
+    TeamIdResolver teamIdResolver;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void resolveFromQueryCache() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long hitBefore = statistics.getQueryCacheHitCount();
+
+        assertThat(teamIdResolver.findTeamId("teamA")).contains(teamA.getId());
+        assertThat(teamIdResolver.findTeamId("teamA")).contains(teamA.getId());
+        assertThat(teamIdResolver.findTeamId("none")).isEmpty();
+
+        assertThat(statistics.getQueryCacheHitCount() - hitBefore).isEqualTo(1);
+    }
+
+    @Test
+    void searchByResolvedTeamId() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamB));
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamB");
+        List<MemberTeamDto> result = memberRepository.search(cond);
+        assertThat(result).extracting("username").containsExactly("member2");
+        assertThat(memberRepository.searchPage(cond, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+
+        // 이름에 해당하는 team 이 없으면 member 를 조회하지 않고 빈 결과를 돌려준다
+        cond.setTeamName("none");
+        reset();
+        assertThat(memberRepository.search(cond)).isEmpty();
+        assertThat(memberRepository.searchPage(cond, PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(memberRepository.searchSlice(cond, null, 10, false).getContent()).isEmpty();
+        assertThat(statements()).noneMatch(sql -> sql.contains("from member "));
+    }
+
+    @Test
+    void statisticsByResolvedTeamId() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamB));
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamB");
+        List<TeamStatisticsDto> statistics = memberStatisticsRepository.teamStatistics(cond);
+        assertThat(statistics).extracting("teamName").containsExactly("teamB");
+        assertThat(memberStatisticsRepository.ageHistogram(cond, 50, 100)).extracting("count").containsExactly(1L, 0L, 0L);
+
+        cond.setTeamName("none");
+        assertThat(memberStatisticsRepository.teamStatistics(cond)).isEmpty();
+        assertThat(memberStatisticsRepository.ageHistogram(cond, 50, 100)).extracting("count").containsExactly(0L, 0L, 0L);
+    }
+}
@@ -0,0 +1,107 @@
+package spring.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.TeamWithMembersDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        for (int i = 0; i < 5; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            for (int j = 0; j < 3; j++) {
+                em.persist(new Member("member" + i + "_" + j, 10 * j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+        em.getEntityManagerFactory().getCache().evictAll();
+
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findTeamsWithMembers() {
+        List<Team> teams = teamRepository.findTeamsWithMembers(PageRequest.of(1, 2));
+
+        assertThat(teams).extracting("name").containsExactly("team2", "team3");
+        assertThat(teams).allSatisfy(t -> assertThat(t.getMembers()).hasSize(3));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void searchTeamsWithMembers() {
+        em.persist(new Team("team5"));
+        em.flush();
+        statistics.clear();
+
+        Page<TeamWithMembersDto> page = teamRepository.searchTeamsWithMembers(PageRequest.of(1, 2));
+
+        assertThat(page.getContent()).extracting("teamName").containsExactly("team2", "team3");
+        assertThat(page.getContent().get(0).getMembers()).extracting("username")
+                .containsExactly("member2_0", "member2_1", "member2_2");
+        assertThat(page.getContent()).allSatisfy(t -> assertThat(t.getMemberCount()).isEqualTo(3));
+        assertThat(page.getTotalElements()).isEqualTo(6);
+        // team 페이지, member join, count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        Page<TeamWithMembersDto> last = teamRepository.searchTeamsWithMembers(PageRequest.of(2, 2));
+        assertThat(last.getContent()).extracting("teamName").containsExactly("team4", "team5");
+        assertThat(last.getContent().get(1).getMembers()).isEmpty();
+        assertThat(last.getContent().get(1).getMemberCount()).isZero();
+    }
+
+    @Test
+    void searchTeamsWithLimitedMembers() {
+        Page<TeamWithMembersDto> page = teamRepository.searchTeamsWithMembers(PageRequest.of(0, 10), 2);
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getContent()).allSatisfy(t -> {
+            assertThat(t.getMembers()).hasSize(2);
+            assertThat(t.getMemberCount()).isEqualTo(3);
+        });
+        assertThat(page.getContent().get(0).getMembers()).extracting("username").containsExactly("member0_0", "member0_1");
+        // 첫 페이지에 전체 team 이 들어오므로 count 쿼리는 생략된다
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void batchFetchTeamOfMembers() {
+        List<Member> members = memberJpaRepository.searchMember(new MemberSearchCond());
+        members.forEach(m -> m.getTeam().getName());
+
+        assertThat(members).hasSize(15);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,43 @@
+package spring.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsernameTrigramIndexTest {
+
+    UsernameTrigramIndex usernameIndex = new UsernameTrigramIndex(null, null, true, 2);
+
+    @Test
+    void candidates() {
+        usernameIndex.put(1L, "member10");
+        usernameIndex.put(2L, "member20");
+        usernameIndex.put(3L, "user10");
+
+        assertThat(usernameIndex.candidates("r10")).hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 3L));
+        assertThat(usernameIndex.candidates("mber2")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(2L));
+        assertThat(usernameIndex.candidates("zzz")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    void fallbackWhenIndexCannotNarrow() {
+        usernameIndex.put(1L, "member1");
+        usernameIndex.put(2L, "member2");
+        usernameIndex.put(3L, "member3");
+
+        assertThat(usernameIndex.candidates("10")).isEmpty();
+        assertThat(usernameIndex.candidates("member")).isEmpty();
+    }
+
+    @Test
+    void updateAndRemove() {
+        usernameIndex.put(1L, "member10");
+        usernameIndex.put(1L, "renamed");
+
+        assertThat(usernameIndex.candidates("member")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        assertThat(usernameIndex.candidates("name")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+
+        usernameIndex.remove(1L);
+        assertThat(usernameIndex.candidates("name")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+}
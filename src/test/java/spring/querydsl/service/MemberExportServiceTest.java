@@ -0,0 +1,48 @@
+package spring.querydsl.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @Test
+    void exportTest() throws Exception {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member,2", 20, teamA));
+        em.persist(new Member("member3", 30, null));
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        memberExportService.exportCsv(cond, csv);
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[2]).contains("\"member,2\"");
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        memberExportService.exportNdjson(new MemberSearchCond(), ndjson);
+        assertThat(ndjson.toString(StandardCharsets.UTF_8).split("\n")).hasSize(3);
+    }
+}
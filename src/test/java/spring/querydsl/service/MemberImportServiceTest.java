@@ -0,0 +1,93 @@
+package spring.querydsl.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import spring.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static spring.querydsl.support.SqlStatementCounter.*;
+
+/**
+ * 테스트 설정에는 JDBC batch 가 꺼져 있으므로 운영 설정과 같은 batch 속성을 켜고 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Transactional
+class MemberImportServiceTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberImportService memberImportService;
+
+    @Test
+    void importCsvTest() throws Exception {
+        String csv = "username,age,teamName\nmember1,10,teamA\nmember2,20,teamB\nmember3,30,teamA\nmember4,40,\n";
+
+        long count = memberImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(count).isEqualTo(4);
+        assertThat(em.createQuery("select count(t) from Team t", Long.class).getSingleResult()).isEqualTo(2);
+        assertThat(em.createQuery("select count(m) from Member m where m.team.name = 'teamA'", Long.class).getSingleResult()).isEqualTo(2);
+    }
+
+    @Test
+    void importExportedCsv() throws Exception {
+        String csv = "memberId,username,age,teamId,teamName\n"
+                + "1,\"kim, \"\"jr\"\"\",10,1,teamA\n"
+                + "2,\"line\nbreak\",20,,\n";
+
+        long count = memberImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(em.createQuery("select m.username from Member m order by m.age", String.class).getResultList())
+                .containsExactly("kim, \"jr\"", "line\nbreak");
+        assertThat(em.createQuery("select count(m) from Member m where m.team.name = 'teamA'", Long.class).getSingleResult()).isEqualTo(1);
+    }
+
+    @Test
+    void firstRecordStartingWithUsernameIsNotHeader() throws Exception {
+        String csv = "username1,10,teamA\nmember2,20,teamA\n";
+
+        long count = memberImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(em.createQuery("select count(m) from Member m where m.username = 'username1'", Long.class).getSingleResult()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidAge() {
+        String csv = "member1,ten,teamA\n";
+
+        assertThatThrownBy(() -> memberImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void insertsAreBatched() throws Exception {
+        em.persist(new Team("teamA"));
+        em.flush();
+        em.clear();
+        reset();
+
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            csv.append("member").append(i).append(',').append(i % 100).append(",teamA\n");
+        }
+        long count = memberImportService.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        // team 목록 조회 한 번, batch_size(50) 마다 flush 하므로 insert 문은 50, 50, 20 건씩 세 번만 준비된다.
+        assertThat(count).isEqualTo(120);
+        assertStatements(1, 3, 0, 0);
+    }
+}
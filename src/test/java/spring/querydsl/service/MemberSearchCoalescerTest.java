@@ -0,0 +1,158 @@
+package spring.querydsl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+import spring.querydsl.repository.MemberRepository;
+import spring.querydsl.repository.TeamRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+import static spring.querydsl.support.SqlStatementCounter.*;
+
+/**
+ * 동시에 들어온 같은 검색이 DB 를 한 번만 조회하는지 확인한다.
+ * 각 호출은 별도 스레드의 트랜잭션 밖에서 실행되므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ */
+@SpringBootTest(properties = "member.search.coalescing.enabled=true")
+class MemberSearchCoalescerTest {
+
+    private static final int CALLERS = 16;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MemberSearchCoalescer coalescer;
+
+    @Autowired
+    MemberSearchResultCache resultCache;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void oneExecutionPerBurst() throws Exception {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        for (int i = 0; i < 4; i++) {
+            memberRepository.save(new Member("member" + i, i * 10, teamA));
+        }
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+        PageRequest pageable = PageRequest.of(0, 2);
+
+        double executedBefore = count("executed");
+        double coalescedBefore = count("coalesced");
+        // 먼저 들어온 호출은 나머지가 모두 합류할 때까지 결과를 내지 않는다
+        Supplier<Page<MemberTeamDto>> search = () -> {
+            Page<MemberTeamDto> page = memberRepository.searchPage(cond, pageable);
+            awaitCount("coalesced", coalescedBefore + CALLERS - 1);
+            return page;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Page<MemberTeamDto>>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                // 호출마다 새 조건 객체를 만들어도 같은 key 가 된다
+                MemberSearchCond sameCond = new MemberSearchCond();
+                sameCond.setTeamName("teamA");
+                sameCond.setUsername("");
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return coalescer.execute(sameCond, PageRequest.of(0, 2), search);
+                }));
+            }
+
+            reset();
+            start.countDown();
+
+            Page<MemberTeamDto> first = futures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Page<MemberTeamDto>> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isSameAs(first);
+            }
+            assertThat(first.getTotalElements()).isEqualTo(4);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // content + count 한 번씩
+        assertSelectCount(2);
+        assertThat(count("executed") - executedBefore).isEqualTo(1);
+        assertThat(count("coalesced") - coalescedBefore).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void waitingCallerTimesOut() throws Exception {
+        MemberSearchCoalescer shortTimeout = new MemberSearchCoalescer(new SimpleMeterRegistry(), resultCache, true, Duration.ofMillis(100));
+        MemberSearchCond cond = new MemberSearchCond();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> shortTimeout.execute(cond, null, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "leader";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> shortTimeout.execute(cond, null, () -> "follower"))
+                .isInstanceOf(QueryTimeoutException.class);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        // 끝난 뒤에는 새로 실행한다
+        assertThat(shortTimeout.execute(cond, null, () -> "next")).isEqualTo("next");
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("member.search.coalescing").tag("result", result).counter().count();
+    }
+
+    private void awaitCount(String result, double expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(result) < expected) {
+            if (System.nanoTime() > deadline) {
+                fail("합류한 호출 수가 " + expected + " 에 이르지 않았습니다: " + count(result));
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
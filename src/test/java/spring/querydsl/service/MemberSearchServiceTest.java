@@ -0,0 +1,119 @@
+package spring.querydsl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.querydsl.dto.MemberSearchCond;
+import spring.querydsl.dto.MemberTeamDto;
+import spring.querydsl.entity.Member;
+import spring.querydsl.entity.Team;
+import spring.querydsl.repository.MemberRepository;
+import spring.querydsl.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 쓰기 트랜잭션 안의 결과는 캐시에 넣지 않으므로 테스트 데이터를 커밋하고 끝나면 지운다.
+ */
+@SpringBootTest(properties = "member.search.result-cache.enabled=true")
+class MemberSearchServiceTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MemberSearchService memberSearchService;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void cacheAndInvalidateOnWrite() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+        List<MemberTeamDto> first = memberSearchService.search(cond);
+
+        MemberSearchCond sameCond = new MemberSearchCond();
+        sameCond.setTeamName("teamA");
+        sameCond.setUsername("");
+        assertThat(memberSearchService.search(sameCond)).isSameAs(first);
+
+        memberRepository.save(new Member("member2", 20, teamA));
+
+        assertThat(memberSearchService.search(cond)).extracting("username").containsExactly("member1", "member2");
+        assertThat(meterRegistry.find("cache.gets").tags("cache", "memberSearch", "result", "hit").functionCounter().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void pageIsPartOfKey() {
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("member" + i, i, null));
+        }
+
+        MemberSearchCond cond = new MemberSearchCond();
+        assertThat(memberSearchService.searchPage(cond, PageRequest.of(0, 2)).getContent())
+                .extracting("username").containsExactly("member0", "member1");
+        assertThat(memberSearchService.searchPage(cond, PageRequest.of(1, 2)).getContent())
+                .extracting("username").containsExactly("member2", "member3");
+    }
+
+    @Test
+    void notCachedInsideReadWriteTransaction() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<MemberTeamDto> first = memberSearchService.search(cond);
+            assertThat(memberSearchService.search(cond)).isNotSameAs(first);
+        });
+
+        List<MemberTeamDto> outside = memberSearchService.search(cond);
+        assertThat(memberSearchService.search(cond)).isSameAs(outside);
+    }
+
+    @Test
+    void readOwnWriteInsideTransaction() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, teamA));
+
+        MemberSearchCond cond = new MemberSearchCond();
+        cond.setTeamName("teamA");
+        List<MemberTeamDto> cached = memberSearchService.search(cond);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(memberSearchService.search(cond)).isSameAs(cached);
+
+            memberRepository.save(new Member("member2", 20, teamA));
+
+            assertThat(memberSearchService.search(cond)).extracting("username").containsExactly("member1", "member2");
+        });
+
+        assertThat(memberSearchService.search(cond)).extracting("username").containsExactly("member1", "member2");
+    }
+}
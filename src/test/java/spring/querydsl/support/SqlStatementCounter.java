@@ -0,0 +1,90 @@
+package spring.querydsl.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate 가 준비하는 모든 SQL 을 기록해 테스트에서 종류별 실행 횟수를 검증한다.
+ * 테스트 설정의 hibernate.session_factory.statement_inspector 로 등록되며,
+ * Hibernate 가 클래스 이름으로 생성하므로 기록은 static 으로 공유한다.
+ * 시퀀스 호출(call next value ...)은 pooled 할당 상태에 따라 달라지므로 검증 대상에서 뺀다.
+ * SQL 마다 준비한 스레드 이름도 함께 남겨 다른 스레드에서 실행된 쿼리를 구분할 수 있다.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final List<Map.Entry<String, String>> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(Map.entry(Thread.currentThread().getName(), sql));
+        return sql;
+    }
+
+    public static void reset() {
+        statements.clear();
+    }
+
+    public static List<String> statements() {
+        List<String> sqls = new ArrayList<>();
+        for (Map.Entry<String, String> statement : statements) {
+            sqls.add(statement.getValue());
+        }
+        return sqls;
+    }
+
+    /**
+     * 이름이 threadNamePrefix 로 시작하는 스레드에서 준비된 SQL 만 돌려준다.
+     */
+    public static List<String> statementsOnThread(String threadNamePrefix) {
+        List<String> sqls = new ArrayList<>();
+        for (Map.Entry<String, String> statement : statements) {
+            if (statement.getKey().startsWith(threadNamePrefix)) {
+                sqls.add(statement.getValue());
+            }
+        }
+        return sqls;
+    }
+
+    /**
+     * select 만 정확히 select 번 실행됐는지 확인한다.
+     */
+    public static void assertSelectCount(int select) {
+        assertStatements(select, 0, 0, 0);
+    }
+
+    public static void assertStatements(int select, int insert, int update, int delete) {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        expected.put("select", select);
+        expected.put("insert", insert);
+        expected.put("update", update);
+        expected.put("delete", delete);
+
+        Map<String, Integer> actual = new LinkedHashMap<>();
+        expected.keySet().forEach(type -> actual.put(type, 0));
+        List<String> executed = statements();
+        for (String sql : executed) {
+            actual.computeIfPresent(type(sql), (type, count) -> count + 1);
+        }
+
+        assertThat(actual)
+                .as("실행된 SQL %d 건:%n%s", executed.size(), String.join(System.lineSeparator(), executed))
+                .isEqualTo(expected);
+    }
+
+    private static String type(String sql) {
+        String trimmed = sql.stripLeading().toLowerCase(Locale.ROOT);
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end);
+    }
+}